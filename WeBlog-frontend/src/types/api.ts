@@ -72,6 +72,8 @@ export interface Post {
   richContent: RichContent;
   comments: number[];
   commentsCount: number;
+  latestComments?: Comment[];
+  commentsCursor?: string;
   createdAt: string;
   updatedAt: string;
 }
@@ -172,6 +174,7 @@ export interface RelationshipHistoryItem {
 
 // WebSocket notification types
 export interface WebSocketNotification {
+  id?: number;
   type: NotificationType;
   fromUserId: number;
   toUserId: number;
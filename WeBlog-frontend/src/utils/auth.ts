@@ -4,6 +4,7 @@ import type { User } from "../types/api";
 export const STORAGE_KEYS = {
   TOKEN: "token",
   USER: "user",
+  LAST_NOTIFICATION_ID: "weblog_last_notification_id",
 } as const;
 
 // Save token to local storage
@@ -54,6 +55,7 @@ export const isAuthenticated = (): boolean => {
 export const clearAuth = (): void => {
   removeToken();
   removeUser();
+  localStorage.removeItem(STORAGE_KEYS.LAST_NOTIFICATION_ID);
 };
 
 // Login
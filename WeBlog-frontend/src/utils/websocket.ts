@@ -1,4 +1,8 @@
 import type { WebSocketNotification, NotificationType } from "../types/api";
+import { STORAGE_KEYS } from "./auth";
+
+// Notification IDs remembered per tab for dedupe (covers replay overlapping live delivery)
+const SEEN_NOTIFICATION_LIMIT = 500;
 
 export class NotificationManager {
   private ws: WebSocket | null = null;
@@ -12,6 +16,7 @@ export class NotificationManager {
     string,
     (notification: WebSocketNotification) => void
   > = new Map();
+  private seenNotificationIds: Set<number> = new Set();
 
   constructor(token: string) {
     this.token = token;
@@ -54,6 +59,9 @@ export class NotificationManager {
     this.ws.onmessage = (event) => {
       try {
         const notification: WebSocketNotification = JSON.parse(event.data);
+        if (!this.trackNotificationId(notification)) {
+          return;
+        }
         this.handleNotification(notification);
       } catch (error) {
         // Silently handle parse errors
@@ -88,7 +96,7 @@ export class NotificationManager {
     // 优先使用环境变量
     const envWsUrl = import.meta.env.VITE_WS_URL;
     if (envWsUrl) {
-      return `${envWsUrl}/notifications?token=${this.token}`;
+      return `${envWsUrl}/notifications?token=${this.token}${this.getReplayParam()}`;
     }
 
     // 检查localStorage中的WebSocket连接偏好
@@ -97,7 +105,7 @@ export class NotificationManager {
     // 根据环境自动判断
     if (import.meta.env.DEV) {
       // 开发环境：直接连接本地WebSocket
-      return `ws://localhost:8080/ws/notifications?token=${this.token}`;
+      return `ws://localhost:8080/ws/notifications?token=${this.token}${this.getReplayParam()}`;
     } else {
       // 生产环境：根据用户偏好或自动检测
       if (wsPreference === "direct") {
@@ -105,7 +113,7 @@ export class NotificationManager {
         console.info(
           "🔌 WebSocket: 使用直连EC2模式 (可能需要浏览器允许不安全内容)"
         );
-        return `ws://34.210.43.155:8080/ws/notifications?token=${this.token}`;
+        return `ws://34.210.43.155:8080/ws/notifications?token=${this.token}${this.getReplayParam()}`;
       } else {
         // 默认尝试CloudFront WSS - 使用环境变量
         const cloudfrontDomain =
@@ -114,11 +122,47 @@ export class NotificationManager {
         console.info(
           '🔌 WebSocket: 使用CloudFront WSS模式 (如遇问题，在控制台运行: localStorage.setItem("weblog_ws_mode", "direct") 后刷新页面)'
         );
-        return `wss://${cloudfrontDomain}/ws/notifications?token=${this.token}`;
+        return `wss://${cloudfrontDomain}/ws/notifications?token=${this.token}${this.getReplayParam()}`;
       }
     }
   }
 
+  // Replay cursor: server resends stored notifications newer than this ID
+  private getReplayParam(): string {
+    const lastId = localStorage.getItem(STORAGE_KEYS.LAST_NOTIFICATION_ID);
+    return lastId ? `&lastSeenId=${lastId}` : "";
+  }
+
+  // Dedupe per tab: every open tab has its own session and receives each notification.
+  // localStorage only keeps the highest ID seen by any tab, for the reconnect replay cursor.
+  private trackNotificationId(notification: WebSocketNotification): boolean {
+    if (notification.id == null) {
+      return true;
+    }
+    if (this.seenNotificationIds.has(notification.id)) {
+      return false;
+    }
+    this.seenNotificationIds.add(notification.id);
+    if (this.seenNotificationIds.size > SEEN_NOTIFICATION_LIMIT) {
+      // Sets iterate in insertion order: drop the oldest
+      const oldest = this.seenNotificationIds.values().next().value;
+      if (oldest !== undefined) {
+        this.seenNotificationIds.delete(oldest);
+      }
+    }
+
+    const lastId = Number(
+      localStorage.getItem(STORAGE_KEYS.LAST_NOTIFICATION_ID) || 0
+    );
+    if (notification.id > lastId) {
+      localStorage.setItem(
+        STORAGE_KEYS.LAST_NOTIFICATION_ID,
+        String(notification.id)
+      );
+    }
+    return true;
+  }
+
   // Handle incoming notifications
   private handleNotification(notification: WebSocketNotification): void {
     // Notify type-specific listeners
@@ -0,0 +1,78 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files (build/results/jmh/<commit>.json).
+
+Usage:
+    ./gradlew jmh                      # on the baseline commit
+    git checkout <change> && ./gradlew jmh
+    python3 perf/jmh-compare.py build/results/jmh/<base>.json build/results/jmh/<head>.json
+
+A benchmark is flagged when the scores differ by more than --threshold percent
+AND the 99.9% confidence intervals of the two runs do not overlap, so noisy
+results are reported as "~" instead of as regressions. Exits with status 1 if
+any benchmark regressed, which lets CI fail on a slowdown.
+"""
+
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params") or {}
+            key = entry["benchmark"].rsplit(".", 2)
+            name = ".".join(key[-2:])
+            if params:
+                name += "(" + ", ".join(f"{k}={v}" for k, v in sorted(params.items())) + ")"
+            metric = entry["primaryMetric"]
+            low, high = metric.get("scoreConfidence", [metric["score"], metric["score"]])
+            results[name] = {
+                "mode": entry["mode"],
+                "score": metric["score"],
+                "low": low,
+                "high": high,
+                "unit": metric["scoreUnit"],
+            }
+        return results
+
+
+def lower_is_better(mode):
+    # avgt / sample / ss report time per operation; thrpt reports operations per time
+    return mode != "thrpt"
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("base")
+    parser.add_argument("head")
+    parser.add_argument("--threshold", type=float, default=5.0, help="minimum change in percent (default 5)")
+    args = parser.parse_args()
+
+    base = load(args.base)
+    head = load(args.head)
+    regressions = 0
+
+    print(f"{'benchmark':<60} {'base':>12} {'head':>12} {'unit':>8} {'change':>9}")
+    for name in sorted(base.keys() | head.keys()):
+        if name not in base or name not in head:
+            side = "head" if name in head else "base"
+            print(f"{name:<60} only in {side}")
+            continue
+        b, h = base[name], head[name]
+        change = (h["score"] - b["score"]) / b["score"] * 100 if b["score"] else 0.0
+        overlap = b["low"] <= h["high"] and h["low"] <= b["high"]
+        if abs(change) < args.threshold or overlap:
+            verdict = "~"
+        else:
+            worse = change > 0 if lower_is_better(b["mode"]) else change < 0
+            verdict = "REGRESSED" if worse else "improved"
+            regressions += worse
+        print(f"{name:<60} {b['score']:>12.3f} {h['score']:>12.3f} {b['unit']:>8} {change:>+8.1f}%  {verdict}")
+
+    return 1 if regressions else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
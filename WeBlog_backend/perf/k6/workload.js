@@ -0,0 +1,203 @@
+// ======================================
+// WeBlog load test workload (k6)
+// ======================================
+// Drives the REST API and /ws/notifications with the users seeded by
+// perf/seed-dataset.sql (load_1 .. load_N, coupled as (1, 2), (3, 4), ...).
+//
+//   mkdir -p build/results/k6
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERS=200 -e DURATION=5m \
+//          --summary-export=build/results/k6/$(git rev-parse --short HEAD).json \
+//          perf/k6/workload.js
+//
+// Scenarios (rates are per second, override with -e):
+//   browse   READ_RATE      timeline first page, then two cursor pages, then a post's comments
+//   write    WRITE_RATE     new post or comment by an odd user (notifies the even partner)
+//   search   SEARCH_RATE    full-text search with common and rare words
+//   sockets  SOCKETS        even users holding /ws/notifications open for the whole run
+//
+// The summary reports throughput (http_reqs, iterations) and p50/p95/p99 per
+// request name; thresholds fail the run when the latency targets are missed.
+
+import http from 'k6/http';
+import ws from 'k6/ws';
+import { check, fail } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const WS_URL = BASE_URL.replace(/^http/, 'ws') + '/ws/notifications';
+const ORIGIN = __ENV.ORIGIN || 'http://localhost:5173';
+const USERS = parseInt(__ENV.USERS || '200', 10);
+const PASSWORD = __ENV.PASSWORD || 'password';
+const DURATION = __ENV.DURATION || '5m';
+
+const notificationsReceived = new Counter('ws_notifications_received');
+const postsPerPage = new Trend('timeline_page_posts');
+
+export const options = {
+    setupTimeout: '5m',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    scenarios: {
+        browse: {
+            executor: 'constant-arrival-rate',
+            exec: 'browse',
+            rate: parseInt(__ENV.READ_RATE || '50', 10),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 50,
+            maxVUs: 200,
+        },
+        write: {
+            executor: 'constant-arrival-rate',
+            exec: 'write',
+            rate: parseInt(__ENV.WRITE_RATE || '5', 10),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 10,
+            maxVUs: 50,
+        },
+        search: {
+            executor: 'constant-arrival-rate',
+            exec: 'search',
+            rate: parseInt(__ENV.SEARCH_RATE || '5', 10),
+            timeUnit: '1s',
+            duration: DURATION,
+            preAllocatedVUs: 10,
+            maxVUs: 50,
+        },
+        sockets: {
+            executor: 'per-vu-iterations',
+            exec: 'sockets',
+            vus: parseInt(__ENV.SOCKETS || '50', 10),
+            iterations: 1,
+            maxDuration: DURATION,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{name:GET /api/posts}': ['p(95)<250', 'p(99)<500'],
+        'http_req_duration{name:GET /api/posts?cursor}': ['p(95)<250', 'p(99)<500'],
+        'http_req_duration{name:GET /api/posts/{postId}/comments}': ['p(95)<250'],
+        'http_req_duration{name:POST /api/posts}': ['p(95)<500'],
+        'http_req_duration{name:POST /api/posts/{postId}/comments}': ['p(95)<500'],
+        'http_req_duration{name:GET /api/search}': ['p(95)<500'],
+    },
+};
+
+// Log in once per user; BCrypt makes logins expensive, so they are kept out of the measured scenarios
+export function setup() {
+    const tokens = [];
+    for (let n = 1; n <= USERS; n++) {
+        const res = http.post(`${BASE_URL}/api/auth/login`,
+            JSON.stringify({ username: `load_${n}`, password: PASSWORD }),
+            { headers: { 'Content-Type': 'application/json' }, tags: { name: 'POST /api/auth/login' } });
+        if (res.status !== 200) {
+            fail(`login failed for load_${n}: ${res.status} ${res.body}`);
+        }
+        tokens.push(res.json('data.token'));
+    }
+    return { tokens };
+}
+
+function pick(list) {
+    return list[Math.floor(Math.random() * list.length)];
+}
+
+function userIndex(data, parity) {
+    // parity 1: odd users (load_1, load_3, ...), 0: even users
+    const i = 2 * Math.floor(Math.random() * Math.floor(data.tokens.length / 2)) + (parity === 1 ? 0 : 1);
+    return Math.min(i, data.tokens.length - 1);
+}
+
+function auth(token, name) {
+    return {
+        headers: { Authorization: `Bearer ${token}`, 'Content-Type': 'application/json' },
+        tags: { name },
+    };
+}
+
+function content(text) {
+    return {
+        richContent: {
+            type: 'rich_text',
+            version: '1.0',
+            delta: { ops: [{ insert: text, attributes: { bold: true } }, { insert: '\n' }] },
+            plainText: text,
+        },
+    };
+}
+
+export function browse(data) {
+    const token = pick(data.tokens);
+
+    let res = http.get(`${BASE_URL}/api/posts?size=10&commentPreview=3`, auth(token, 'GET /api/posts'));
+    if (!check(res, { 'timeline 200': (r) => r.status === 200 })) {
+        return;
+    }
+    const posts = res.json('data.content') || [];
+    postsPerPage.add(posts.length);
+
+    let cursor = res.json('data.nextCursor');
+    for (let page = 0; page < 2 && cursor; page++) {
+        res = http.get(`${BASE_URL}/api/posts?size=10&commentPreview=3&cursor=${encodeURIComponent(cursor)}`,
+            auth(token, 'GET /api/posts?cursor'));
+        check(res, { 'timeline cursor 200': (r) => r.status === 200 });
+        cursor = res.status === 200 ? res.json('data.nextCursor') : null;
+    }
+
+    if (posts.length > 0) {
+        const post = pick(posts);
+        res = http.get(`${BASE_URL}/api/posts/${post.postId}/comments?size=20`,
+            auth(token, 'GET /api/posts/{postId}/comments'));
+        check(res, { 'comments 200': (r) => r.status === 200 });
+    }
+}
+
+export function write(data) {
+    const token = data.tokens[userIndex(data, 1)];
+    const text = `load test ${Date.now()} weekend coffee walk`;
+
+    if (Math.random() < 0.3) {
+        const res = http.post(`${BASE_URL}/api/posts`, JSON.stringify(content(text)), auth(token, 'POST /api/posts'));
+        check(res, { 'create post 200': (r) => r.status === 200 });
+        return;
+    }
+
+    const page = http.get(`${BASE_URL}/api/posts?size=5`, auth(token, 'GET /api/posts'));
+    const posts = page.status === 200 ? page.json('data.content') || [] : [];
+    if (posts.length === 0) {
+        return;
+    }
+    const res = http.post(`${BASE_URL}/api/posts/${pick(posts).postId}/comments`, JSON.stringify(content(text)),
+        auth(token, 'POST /api/posts/{postId}/comments'));
+    check(res, { 'create comment 200': (r) => r.status === 200 });
+}
+
+// Common words from the seeded vocabulary, and ones that never match
+const SEARCH_TERMS = ['today', 'coffee weekend', 'walk -rain', '"happy birthday"', 'beach garden', 'zzzz'];
+
+export function search(data) {
+    const token = pick(data.tokens);
+    const q = encodeURIComponent(pick(SEARCH_TERMS));
+    const res = http.get(`${BASE_URL}/api/search?q=${q}&size=10`, auth(token, 'GET /api/search'));
+    check(res, { 'search 200': (r) => r.status === 200 });
+}
+
+export function sockets(data) {
+    const token = data.tokens[userIndex(data, 0)];
+    const url = `${WS_URL}?token=${encodeURIComponent(token)}`;
+    const seconds = parseDuration(DURATION);
+
+    const res = ws.connect(url, { headers: { Origin: ORIGIN }, tags: { name: 'WS /ws/notifications' } }, (socket) => {
+        socket.on('message', () => notificationsReceived.add(1));
+        socket.setTimeout(() => socket.close(), seconds * 1000);
+    });
+    check(res, { 'ws upgraded': (r) => r && r.status === 101 });
+}
+
+function parseDuration(value) {
+    const match = /^(\d+)([smh])$/.exec(value);
+    if (!match) {
+        return 300;
+    }
+    return parseInt(match[1], 10) * { s: 1, m: 60, h: 3600 }[match[2]];
+}
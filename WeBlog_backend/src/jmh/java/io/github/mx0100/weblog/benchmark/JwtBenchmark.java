@@ -0,0 +1,78 @@
+package io.github.mx0100.weblog.benchmark;
+
+import io.github.mx0100.weblog.config.JwtConfig;
+import io.github.mx0100.weblog.security.UserPrincipal;
+import io.github.mx0100.weblog.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of JWT authentication
+ * legacyThreeParses: previous filter path (validate + user ID + username, new key and parser each time)
+ * singleParseUncached: one parse with the prebuilt parser (first request with a token)
+ * singleParseCached: repeat request served from the verified-token cache
+ * generateToken: signing a new token at login
+ * 
+ * @author mx0100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    
+    private JwtConfig jwtConfig;
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtConfig = new JwtConfig();
+        jwtUtils = new JwtUtils(jwtConfig, new SimpleMeterRegistry());
+        
+        JwtConfig uncachedConfig = new JwtConfig();
+        uncachedConfig.setCacheMaxSize(0L);
+        uncachedJwtUtils = new JwtUtils(uncachedConfig, new SimpleMeterRegistry());
+        
+        token = jwtUtils.generateToken(42L, "benchmark-user");
+        jwtUtils.getPrincipalFromToken(token);
+    }
+    
+    @Benchmark
+    public UserPrincipal legacyThreeParses() {
+        parseLegacy(token);
+        Long userId = Long.parseLong(parseLegacy(token).getSubject());
+        String username = parseLegacy(token).get("username", String.class);
+        return new UserPrincipal(userId, username);
+    }
+    
+    @Benchmark
+    public UserPrincipal singleParseUncached() {
+        return uncachedJwtUtils.getPrincipalFromToken(token);
+    }
+    
+    @Benchmark
+    public UserPrincipal singleParseCached() {
+        return jwtUtils.getPrincipalFromToken(token);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(42L, "benchmark-user");
+    }
+    
+    private Claims parseLegacy(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.mx0100.weblog.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.dto.NotificationMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a notification payload, done once per notification before it is stored and pushed
+ * 
+ * @author mx0100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NotificationSerializationBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private NotificationMessage message;
+    
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("postId", 1000L);
+        data.put("commentId", 2000L);
+        data.put("commentContent", "A short preview of the comment that was just written...");
+        message = NotificationMessage.builder()
+                .id(123456L)
+                .type(NotificationMessage.Type.NEW_COMMENT)
+                .fromUserId(42L)
+                .toUserId(43L)
+                .message("Benchmark commented on your post")
+                .data(data)
+                .timestamp(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+    }
+    
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(message);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.mx0100.weblog.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.dto.response.CommentResponse;
+import io.github.mx0100.weblog.dto.response.PostResponse;
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.github.mx0100.weblog.utils.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Entity to response mapping and the JSON write of the result, as done for every post and comment in a page
+ * 
+ * @author mx0100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseMappingBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private UserSummary author;
+    private Post post;
+    private List<Long> commentIds;
+    private Comment comment;
+    
+    @Setup
+    public void setup() {
+        // Same defaults as the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        author = new UserSummary(42L, "benchmark-user", "Benchmark", null);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        
+        post = new Post();
+        post.setPostId(1000L);
+        post.setUserId(42L);
+        post.setRichContent(RichContentBenchmark.sampleContent(40));
+        post.setCommentCount(20);
+        post.setCreatedAt(now);
+        post.setUpdatedAt(now);
+        commentIds = LongStream.rangeClosed(1, 20).boxed().toList();
+        
+        comment = new Comment();
+        comment.setCommentId(2000L);
+        comment.setPostId(1000L);
+        comment.setUserId(42L);
+        comment.setRichContent(RichContentBenchmark.sampleContent(4));
+        comment.setCreatedAt(now);
+        comment.setUpdatedAt(now);
+    }
+    
+    @Benchmark
+    public PostResponse toPostResponse() {
+        return BeanUtils.toPostResponse(post, author, commentIds);
+    }
+    
+    @Benchmark
+    public CommentResponse toCommentResponse() {
+        return BeanUtils.toCommentResponse(comment, author);
+    }
+    
+    @Benchmark
+    public String writePostResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(BeanUtils.toPostResponse(post, author, commentIds));
+    }
+    
+    @Benchmark
+    public String writeCommentResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(BeanUtils.toCommentResponse(comment, author));
+    }
+}
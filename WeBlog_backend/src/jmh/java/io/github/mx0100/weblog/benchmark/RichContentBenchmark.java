@@ -0,0 +1,79 @@
+package io.github.mx0100.weblog.benchmark;
+
+import io.github.mx0100.weblog.dto.RawJson;
+import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.utils.DeltaTextExtractor;
+import io.github.mx0100.weblog.utils.RichContentConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of moving rich content between the entity and the JSONB column, and of server-side text extraction
+ * ops: number of Quill ops in the delta (a short comment vs. a long formatted post)
+ * 
+ * @author mx0100
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RichContentBenchmark {
+    
+    @Param({"10", "200"})
+    private int ops;
+    
+    private RichContentConverter converter;
+    private RichContent content;
+    private String column;
+    
+    @Setup
+    public void setup() {
+        converter = new RichContentConverter();
+        content = sampleContent(ops);
+        column = converter.convertToDatabaseColumn(content);
+    }
+    
+    @Benchmark
+    public String toDatabaseColumn() {
+        return converter.convertToDatabaseColumn(content);
+    }
+    
+    @Benchmark
+    public RichContent toEntityAttribute() {
+        return converter.convertToEntityAttribute(column);
+    }
+    
+    @Benchmark
+    public RichContent roundTrip() {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(content));
+    }
+    
+    @Benchmark
+    public DeltaTextExtractor.ExtractedText extractText() {
+        return DeltaTextExtractor.extract(content);
+    }
+    
+    /**
+     * Delta alternating bold and plain inserts with an image embed every 20 ops
+     */
+    static RichContent sampleContent(int ops) {
+        StringBuilder delta = new StringBuilder("{\"ops\":[");
+        StringBuilder plainText = new StringBuilder();
+        for (int i = 0; i < ops; i++) {
+            if (i > 0) {
+                delta.append(',');
+            }
+            if (i % 20 == 19) {
+                delta.append("{\"insert\":{\"image\":\"https://example.com/img/").append(i).append(".png\"}}");
+            } else if (i % 2 == 0) {
+                delta.append("{\"insert\":\"Sentence number ").append(i).append(" of the post \",\"attributes\":{\"bold\":true}}");
+                plainText.append("Sentence number ").append(i).append(" of the post ");
+            } else {
+                delta.append("{\"insert\":\"followed by plain words and a line\\n\"}");
+                plainText.append("followed by plain words and a line\n");
+            }
+        }
+        delta.append("]}");
+        return RichContent.createRichText(RawJson.of(delta.toString()), plainText.toString());
+    }
+}
@@ -21,6 +21,7 @@ public enum ResponseCode {
     FORBIDDEN(403, "Forbidden"),
     NOT_FOUND(404, "Resource not found"),
     CONFLICT(409, "Data conflict"),
+    TOO_MANY_REQUESTS(429, "Too many requests, please retry later"),
     
     // Server errors
     INTERNAL_ERROR(500, "Internal server error"),
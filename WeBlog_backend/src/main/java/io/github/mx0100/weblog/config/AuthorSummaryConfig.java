@@ -0,0 +1,26 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Author summary cache configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "author-summary")
+public class AuthorSummaryConfig {
+    
+    /**
+     * Maximum number of cached author summaries
+     */
+    private Long cacheMaxSize = 10000L;
+    
+    /**
+     * Author summary cache TTL in seconds
+     */
+    private Long cacheTtlSeconds = 60L;
+}
@@ -0,0 +1,88 @@
+package io.github.mx0100.weblog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.service.InMemoryNotificationBus;
+import io.github.mx0100.weblog.service.NotificationBus;
+import io.github.mx0100.weblog.service.PostgresNotificationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Multi-node notification fan-out configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterConfig {
+    
+    /**
+     * Notification bus between nodes: memory (single instance) or postgres (LISTEN/NOTIFY)
+     */
+    private String bus = "memory";
+    
+    /**
+     * ID of this node (random when unset); must be unique within the cluster
+     */
+    private String nodeId;
+    
+    /**
+     * Interval between heartbeats; a node silent for three intervals is dropped from presence
+     */
+    private Long heartbeatIntervalMs = 5000L;
+    
+    /**
+     * Delay before the listener connection is re-established
+     */
+    private Long reconnectDelayMs = 2000L;
+    
+    /**
+     * Maximum messages waiting to be published before new ones are dropped
+     */
+    private Integer publishQueueCapacity = 10000;
+    
+    /**
+     * Maximum user or notification IDs per message (keeps NOTIFY payloads under 8000 bytes)
+     */
+    private Integer maxIdsPerMessage = 400;
+    
+    /**
+     * Node ID usable in a LISTEN channel name
+     */
+    public String getNodeId() {
+        if (!StringUtils.hasText(nodeId)) {
+            nodeId = UUID.randomUUID().toString().substring(0, 8);
+        }
+        String sanitized = nodeId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        return sanitized.length() > 40 ? sanitized.substring(0, 40) : sanitized;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "cluster", name = "bus", havingValue = "postgres")
+    public NotificationBus postgresNotificationBus(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                                   DataSourceProperties dataSourceProperties,
+                                                   MeterRegistry meterRegistry) {
+        return new PostgresNotificationBus(jdbcTemplate, objectMapper, dataSourceProperties, this, meterRegistry);
+    }
+    
+    /**
+     * Bus used when no other NotificationBus bean is defined
+     */
+    @Bean
+    @ConditionalOnMissingBean(NotificationBus.class)
+    public NotificationBus notificationBus() {
+        return new InMemoryNotificationBus();
+    }
+}
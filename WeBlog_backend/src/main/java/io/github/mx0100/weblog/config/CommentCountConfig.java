@@ -0,0 +1,21 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Comment counter configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "comment-count")
+public class CommentCountConfig {
+    
+    /**
+     * Interval in minutes between comment counter reconciliation runs
+     */
+    private Long reconcileIntervalMinutes = 60L;
+}
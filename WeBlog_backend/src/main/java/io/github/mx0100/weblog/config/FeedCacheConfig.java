@@ -0,0 +1,56 @@
+package io.github.mx0100.weblog.config;
+
+import io.github.mx0100.weblog.service.FeedCacheStore;
+import io.github.mx0100.weblog.service.InMemoryFeedCacheStore;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Feed response cache configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feed.cache")
+public class FeedCacheConfig {
+    
+    /**
+     * Whether first feed pages are served from cache
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Number of leading offset pages that are cached (the first keyset slice is always cached)
+     */
+    private Integer maxPages = 3;
+    
+    /**
+     * Maximum number of couples held in the in-process tier
+     */
+    private Long localMaxCouples = 10000L;
+    
+    /**
+     * In-process tier TTL in seconds (bounds staleness of pages changed on another instance)
+     */
+    private Long localTtlSeconds = 30L;
+    
+    /**
+     * Shared tier TTL in seconds
+     */
+    private Long sharedTtlSeconds = 300L;
+    
+    /**
+     * Shared tier used when no other FeedCacheStore bean is defined
+     */
+    @Bean
+    @ConditionalOnMissingBean(FeedCacheStore.class)
+    public FeedCacheStore feedCacheStore() {
+        return new InMemoryFeedCacheStore(localMaxCouples, Duration.ofSeconds(sharedTtlSeconds));
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Feed read model configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feed.read-model")
+public class FeedReadModelConfig {
+    
+    /**
+     * Whether feed_entries is maintained and used to serve timelines
+     * (run the feed rebuild after turning it on for an existing database)
+     */
+    private boolean enabled = false;
+    
+    /**
+     * Maximum number of characters stored as the post preview
+     * (taken from posts.preview, so at most DeltaTextExtractor.PREVIEW_LENGTH)
+     */
+    private Integer previewLength = 200;
+}
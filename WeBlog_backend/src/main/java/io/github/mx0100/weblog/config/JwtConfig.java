@@ -33,4 +33,14 @@ public class JwtConfig {
      * JWT token header name
      */
     private String headerName = "Authorization";
-} 
\ No newline at end of file
+    
+    /**
+     * Maximum number of verified tokens kept in memory
+     */
+    private Long cacheMaxSize = 10000L;
+    
+    /**
+     * Maximum minutes a verified token is trusted without re-checking its signature
+     */
+    private Long cacheTtlMinutes = 5L;
+}
@@ -0,0 +1,111 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Notification dispatch configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "notification")
+public class NotificationConfig {
+    
+    /**
+     * Number of threads rendering and dispatching notifications
+     */
+    private Integer executorThreads = 2;
+    
+    /**
+     * Maximum pending drain tasks before new ones are rejected
+     */
+    private Integer executorQueueCapacity = 1000;
+    
+    /**
+     * Maximum notifications waiting per recipient before new ones are dropped
+     */
+    private Integer mailboxCapacity = 100;
+    
+    /**
+     * Maximum notifications rendered together in one drain pass
+     */
+    private Integer batchSize = 50;
+    
+    /**
+     * Milliseconds before a mailbox whose drain the saturated executor rejected is scheduled again
+     */
+    private Long retryDelayMs = 500L;
+    
+    /**
+     * Days a notification is kept for replay
+     */
+    private Integer ttlDays = 7;
+    
+    /**
+     * Maximum notifications replayed to a reconnecting session
+     */
+    private Integer replayLimit = 500;
+    
+    /**
+     * Notification IDs below the client's last seen ID that are replayed again
+     * IDs are drawn on different nodes and can commit out of order, so a notification numbered
+     * just below the cursor may only have become visible after the client saw the cursor;
+     * the ones already delivered are dropped by exact ID in the sender and the client
+     */
+    private Integer replayOverlap = 100;
+    
+    /**
+     * Only rows created at most this many seconds before the cursor's row fall in the overlap,
+     * so a freshly opened tab (with no IDs in memory) is not sent old notifications again
+     */
+    private Integer replayOverlapSeconds = 10;
+    
+    /**
+     * Seconds between runs of the job that redelivers notifications left pending
+     */
+    private Integer redeliveryIntervalSeconds = 30;
+    
+    /**
+     * Seconds a notification may stay pending before the redelivery job dispatches it again
+     */
+    private Integer redeliveryDelaySeconds = 30;
+    
+    /**
+     * Maximum pending notifications claimed per redelivery run
+     */
+    private Integer redeliveryBatchSize = 500;
+    
+    /**
+     * Expired notification purge interval in minutes
+     */
+    private Long purgeIntervalMinutes = 60L;
+    
+    /**
+     * Maximum rows deleted per purge statement
+     */
+    private Integer purgeBatchSize = 5000;
+    
+    /**
+     * Bounded executor for after-commit notification work
+     */
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(executorThreads);
+        executor.setMaxPoolSize(executorThreads);
+        executor.setQueueCapacity(executorQueueCapacity);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Partner cache configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "partner-cache")
+public class PartnerCacheConfig {
+    
+    /**
+     * Whether the consistency verification job is scheduled
+     */
+    private boolean verifyEnabled = true;
+    
+    /**
+     * Consistency verification interval in minutes
+     */
+    private Long verifyIntervalMinutes = 10L;
+}
@@ -0,0 +1,55 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Password hashing configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "password.hashing")
+public class PasswordHashingConfig {
+    
+    /**
+     * BCrypt work factor (log2 rounds); stored hashes with a lower factor are upgraded on login
+     */
+    private Integer strength = 10;
+    
+    /**
+     * Number of threads computing hashes
+     */
+    private Integer threads = 2;
+    
+    /**
+     * Maximum hash requests waiting for a thread before new ones are rejected
+     */
+    private Integer queueCapacity = 32;
+    
+    /**
+     * Maximum seconds a request waits for its hash result
+     */
+    private Long timeoutSeconds = 10L;
+    
+    /**
+     * Bounded executor that keeps BCrypt work off the web server threads
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
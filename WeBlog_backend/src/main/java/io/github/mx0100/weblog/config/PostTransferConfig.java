@@ -0,0 +1,26 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Post import/export configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "post-transfer")
+public class PostTransferConfig {
+    
+    /**
+     * Number of imported rows (posts plus their comments) written and committed per transaction
+     */
+    private int importChunkSize = 500;
+    
+    /**
+     * Maximum number of comments accepted on a single imported post
+     */
+    private int importMaxCommentsPerPost = 1000;
+}
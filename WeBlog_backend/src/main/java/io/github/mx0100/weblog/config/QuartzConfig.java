@@ -0,0 +1,114 @@
+package io.github.mx0100.weblog.config;
+
+import io.github.mx0100.weblog.job.CommentCountReconciliationJob;
+import io.github.mx0100.weblog.job.NotificationPurgeJob;
+import io.github.mx0100.weblog.job.NotificationRedeliveryJob;
+import io.github.mx0100.weblog.job.PartnerCacheVerificationJob;
+import lombok.RequiredArgsConstructor;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Quartz job and trigger configuration for background maintenance jobs
+ * 
+ * @author mx0100
+ */
+@Configuration
+@RequiredArgsConstructor
+public class QuartzConfig {
+    
+    private final PartnerCacheConfig partnerCacheConfig;
+    private final NotificationConfig notificationConfig;
+    private final CommentCountConfig commentCountConfig;
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "partner-cache", name = "verify-enabled", havingValue = "true", matchIfMissing = true)
+    public JobDetail partnerCacheVerificationJobDetail() {
+        return JobBuilder.newJob(PartnerCacheVerificationJob.class)
+                .withIdentity("partnerCacheVerification")
+                .storeDurably()
+                .build();
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "partner-cache", name = "verify-enabled", havingValue = "true", matchIfMissing = true)
+    public Trigger partnerCacheVerificationTrigger(JobDetail partnerCacheVerificationJobDetail) {
+        return TriggerBuilder.newTrigger()
+                .forJob(partnerCacheVerificationJobDetail)
+                .withIdentity("partnerCacheVerificationTrigger")
+                .startAt(Date.from(Instant.now().plusSeconds(partnerCacheConfig.getVerifyIntervalMinutes() * 60)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMinutes(partnerCacheConfig.getVerifyIntervalMinutes().intValue())
+                        .repeatForever())
+                .build();
+    }
+    
+    @Bean
+    public JobDetail notificationPurgeJobDetail() {
+        return JobBuilder.newJob(NotificationPurgeJob.class)
+                .withIdentity("notificationPurge")
+                .storeDurably()
+                .build();
+    }
+    
+    @Bean
+    public Trigger notificationPurgeTrigger(JobDetail notificationPurgeJobDetail) {
+        return TriggerBuilder.newTrigger()
+                .forJob(notificationPurgeJobDetail)
+                .withIdentity("notificationPurgeTrigger")
+                .startAt(Date.from(Instant.now().plusSeconds(notificationConfig.getPurgeIntervalMinutes() * 60)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMinutes(notificationConfig.getPurgeIntervalMinutes().intValue())
+                        .repeatForever())
+                .build();
+    }
+    
+    @Bean
+    public JobDetail notificationRedeliveryJobDetail() {
+        return JobBuilder.newJob(NotificationRedeliveryJob.class)
+                .withIdentity("notificationRedelivery")
+                .storeDurably()
+                .build();
+    }
+    
+    @Bean
+    public Trigger notificationRedeliveryTrigger(JobDetail notificationRedeliveryJobDetail) {
+        return TriggerBuilder.newTrigger()
+                .forJob(notificationRedeliveryJobDetail)
+                .withIdentity("notificationRedeliveryTrigger")
+                .startAt(Date.from(Instant.now().plusSeconds(notificationConfig.getRedeliveryIntervalSeconds())))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInSeconds(notificationConfig.getRedeliveryIntervalSeconds())
+                        .repeatForever())
+                .build();
+    }
+    
+    @Bean
+    public JobDetail commentCountReconciliationJobDetail() {
+        return JobBuilder.newJob(CommentCountReconciliationJob.class)
+                .withIdentity("commentCountReconciliation")
+                .storeDurably()
+                .build();
+    }
+    
+    @Bean
+    public Trigger commentCountReconciliationTrigger(JobDetail commentCountReconciliationJobDetail) {
+        return TriggerBuilder.newTrigger()
+                .forJob(commentCountReconciliationJobDetail)
+                .withIdentity("commentCountReconciliationTrigger")
+                .startAt(Date.from(Instant.now().plusSeconds(commentCountConfig.getReconcileIntervalMinutes() * 60)))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .withIntervalInMinutes(commentCountConfig.getReconcileIntervalMinutes().intValue())
+                        .repeatForever())
+                .build();
+    }
+}
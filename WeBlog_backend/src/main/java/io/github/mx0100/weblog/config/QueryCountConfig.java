@@ -0,0 +1,72 @@
+package io.github.mx0100.weblog.config;
+
+import io.github.mx0100.weblog.utils.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Per-request Hibernate statement count
+ * Recorded as the weblog.http.server.statements summary, tagged with the HTTP method and
+ * the matched URI template; a page that issues one statement per row shows up as a high count
+ * on its endpoint. Only the request thread is counted (not async or executor work)
+ * 
+ * @author mx0100
+ */
+@Configuration
+public class QueryCountConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, QueryCounter.INSTANCE);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryCountFilter> registration = new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+    
+    static class QueryCountFilter extends OncePerRequestFilter {
+        
+        private final MeterRegistry meterRegistry;
+        
+        QueryCountFilter(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+        
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            QueryCounter.start();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                int statements = QueryCounter.stop();
+                // Unmatched requests share one tag value to keep the series bounded
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("weblog.http.server.statements")
+                        .description("Hibernate statements per HTTP request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(statements);
+            }
+        }
+    }
+}
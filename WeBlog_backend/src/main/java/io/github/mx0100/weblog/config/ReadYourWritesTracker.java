@@ -0,0 +1,116 @@
+package io.github.mx0100.weblog.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mx0100.weblog.security.UserPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Time of each user's last committed write
+ * Registered on the transaction manager; every committed read-write transaction started by an
+ * authenticated request marks its user, so their following reads can stay on the primary
+ * until the replica has caught up. The user's partner is marked too: both read the same
+ * cached timeline, and a partner reading from a lagging replica would cache a stale page for both
+ * 
+ * @author mx0100
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+    
+    // User ID -> System.nanoTime() of the last commit
+    private final Cache<Long, Long> lastWrites;
+    
+    // Receives the user of every recorded commit, so other nodes route their reads too
+    private volatile LongConsumer writeListener = userId -> {};
+    
+    // User ID -> partner ID (or null); set once the partner map is available
+    private volatile UnaryOperator<Long> partnerLookup = userId -> null;
+    
+    public ReadYourWritesTracker(Duration retention, long maxUsers) {
+        this.lastWrites = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(maxUsers)
+                .build();
+    }
+    
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()) {
+            return;
+        }
+        Long userId = currentUserId();
+        if (userId != null) {
+            mark(userId);
+            writeListener.accept(userId);
+        }
+    }
+    
+    /**
+     * Set the lookup of a user's partner, whose reads are routed like the user's own
+     * 
+     * @param partnerLookup user ID -> partner ID, or null without a partner
+     */
+    public void setPartnerLookup(UnaryOperator<Long> partnerLookup) {
+        this.partnerLookup = partnerLookup;
+    }
+    
+    /**
+     * Set the callback invoked with the user of each recorded commit
+     * 
+     * @param writeListener callback
+     */
+    public void setWriteListener(LongConsumer writeListener) {
+        this.writeListener = writeListener;
+    }
+    
+    /**
+     * Record a write committed on another node; timed from its arrival, which only errs
+     * towards keeping the user on the primary a little longer
+     * 
+     * @param userId user ID
+     */
+    public void recordWrite(Long userId) {
+        mark(userId);
+    }
+    
+    /**
+     * Check whether a user committed a write within the given window
+     * 
+     * @param userId user ID
+     * @param windowMs window in milliseconds
+     * @return true if the last write is more recent than the window
+     */
+    public boolean wroteWithin(Long userId, long windowMs) {
+        Long writtenAt = lastWrites.getIfPresent(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+    
+    private void mark(Long userId) {
+        long now = System.nanoTime();
+        lastWrites.put(userId, now);
+        Long partnerId = partnerLookup.apply(userId);
+        if (partnerId != null) {
+            lastWrites.put(partnerId, now);
+        }
+    }
+    
+    /**
+     * Authenticated user of the current request thread
+     * 
+     * @return user ID or null outside an authenticated request
+     */
+    static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.mx0100.weblog.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Read/write DataSource routing
+ * Boot's primary pool is wrapped in a lazy connection proxy, so a transaction only checks out a
+ * connection at its first statement (cache hits inside @Transactional methods never touch the pool).
+ * With a replica configured, read-only transactions run on the replica through
+ * {@link ReplicaRoutingDataSource}; everything else stays on the primary
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaDataSourceConfig {
+    
+    /**
+     * Route read-only transactions to the replica
+     */
+    private boolean enabled = false;
+    
+    private String url;
+    
+    private String username;
+    
+    private String password;
+    
+    private String driverClassName = "org.postgresql.Driver";
+    
+    private Integer maximumPoolSize = 10;
+    
+    private Integer minimumIdle = 2;
+    
+    private Long connectionTimeoutMs = 30000L;
+    
+    /**
+     * Replay lag above which reads go back to the primary in milliseconds
+     */
+    private Long maxLagMs = 5000L;
+    
+    private Long lagCheckIntervalMs = 1000L;
+    
+    /**
+     * Added to the current lag when deciding whether a user's own write has reached the replica
+     */
+    private Long readYourWritesMarginMs = 1000L;
+    
+    /**
+     * Wrap the primary DataSource in the read/write routing proxy
+     */
+    @Bean
+    public static BeanPostProcessor readWriteDataSourcePostProcessor(ObjectProvider<ReplicaDataSourceConfig> config,
+                                                                     ObjectProvider<ReadYourWritesTracker> readYourWrites,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource primary) {
+                    return config.getObject().readWrite(primary, readYourWrites.getIfAvailable(), meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * Last write per user, recorded on commit (only needed with a replica)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "datasource.replica", name = "enabled", havingValue = "true")
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(Duration.ofMillis(maxLagMs + readYourWritesMarginMs), 100_000);
+    }
+    
+    private ReadWriteDataSource readWrite(DataSource primary, ReadYourWritesTracker readYourWrites,
+                                          MeterRegistry meterRegistry) {
+        ReadWriteDataSource readWrite = new ReadWriteDataSource(primary);
+        if (!enabled) {
+            return readWrite;
+        }
+        if (!StringUtils.hasText(url)) {
+            throw new IllegalStateException("datasource.replica.enabled=true requires datasource.replica.url");
+        }
+        
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(minimumIdle);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setReadOnly(true);
+        pool.setMetricRegistry(meterRegistry);
+        
+        readWrite.replica = pool;
+        readWrite.routing = new ReplicaRoutingDataSource(primary, pool, readYourWrites, this, meterRegistry);
+        readWrite.setReadOnlyDataSource(readWrite.routing);
+        
+        log.info("Routing read-only transactions to replica {} (max lag {} ms)", url, maxLagMs);
+        return readWrite;
+    }
+    
+    /**
+     * Lazy proxy over the primary that also owns the replica pool, so context shutdown closes all of them
+     */
+    static class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+        
+        private HikariDataSource replica;
+        private ReplicaRoutingDataSource routing;
+        
+        ReadWriteDataSource(DataSource primary) {
+            super(primary);
+            // Answered without a connection; matches the Hikari defaults
+            setDefaultAutoCommit(true);
+            setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        }
+        
+        @Override
+        public void close() throws Exception {
+            if (routing != null) {
+                routing.close();
+            }
+            if (replica != null) {
+                replica.close();
+            }
+            if (getTargetDataSource() instanceof AutoCloseable primary) {
+                primary.close();
+            }
+        }
+    }
+}
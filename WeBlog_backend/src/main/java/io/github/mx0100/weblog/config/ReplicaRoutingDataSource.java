@@ -0,0 +1,134 @@
+package io.github.mx0100.weblog.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Target for read-only connections: the replica, or the primary when the replica cannot serve the read
+ * Falls back to the primary when the replica lags by more than the allowed maximum (or its lag
+ * is unknown), and for a user whose last write may not have been replayed yet
+ * (written less than the current lag plus a margin ago)
+ * 
+ * @author mx0100
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    
+    /**
+     * Replay lag in milliseconds; 0 when the replica has applied everything it received
+     * (pg_last_xact_replay_timestamp stays old while the primary is idle)
+     */
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "              OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) " +
+            "       END::bigint";
+    
+    private enum Target { PRIMARY, REPLICA }
+    
+    private final ReadYourWritesTracker readYourWrites;
+    private final ReplicaDataSourceConfig config;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ScheduledExecutorService lagChecker;
+    
+    private final Counter replicaReads;
+    private final Counter lagFallbacks;
+    private final Counter readYourWritesFallbacks;
+    
+    private volatile long lagMs = -1;
+    private volatile long checkedAt = 0;
+    
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites,
+                                    ReplicaDataSourceConfig config, MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.config = config;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getMaxLagMs())));
+        
+        this.replicaReads = reads(meterRegistry, "replica", "replica");
+        this.lagFallbacks = reads(meterRegistry, "primary", "replica_lag");
+        this.readYourWritesFallbacks = reads(meterRegistry, "primary", "read_your_writes");
+        Gauge.builder("weblog.db.replica.lag", this, r -> r.lagMs < 0 ? Double.NaN : r.lagMs)
+                .description("Replica replay lag in milliseconds (NaN while unknown)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, config.getLagCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReplicaUsable()) {
+            lagFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (userId != null && readYourWrites.wroteWithin(userId, lagMs + config.getReadYourWritesMarginMs())) {
+            readYourWritesFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+    
+    /**
+     * The replica is used only with a recent lag sample within the allowed maximum
+     */
+    private boolean isReplicaUsable() {
+        long sampleAgeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - checkedAt);
+        return lagMs >= 0 && lagMs <= config.getMaxLagMs() && sampleAgeMs <= 3 * config.getLagCheckIntervalMs();
+    }
+    
+    private void checkLag() {
+        try {
+            Long lag = replicaJdbcTemplate.queryForObject(LAG_SQL, Long.class);
+            boolean recovered = lagMs < 0;
+            lagMs = lag != null ? lag : 0;
+            checkedAt = System.nanoTime();
+            if (recovered) {
+                log.info("Replica reachable, lag {} ms", lagMs);
+            }
+        } catch (DataAccessException e) {
+            if (lagMs >= 0) {
+                log.warn("Replica lag check failed, reads fall back to the primary: {}", e.getMessage());
+            }
+            lagMs = -1;
+        }
+    }
+    
+    private static Counter reads(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("weblog.db.reads")
+                .description("Read-only transactions by the database they were routed to")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+    }
+}
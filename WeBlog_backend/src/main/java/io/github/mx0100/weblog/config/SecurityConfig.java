@@ -1,6 +1,7 @@
 package io.github.mx0100.weblog.config;
 
 import io.github.mx0100.weblog.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -44,8 +45,12 @@ public class SecurityConfig {
             
             // Set authorization rules
             .authorizeHttpRequests(authz -> authz
+                // Async dispatches resume a request that was already authorized (streamed exports)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // Public endpoints - no authentication required
                 .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                .requestMatchers("/api/posts/import", "/api/posts/export").authenticated() // before the {postId} pattern
                 .requestMatchers("/api/posts").permitAll() // GET posts is public
                 .requestMatchers("/api/posts/{postId}").permitAll() // GET single post is public
                 .requestMatchers("/api/posts/{postId}/comments").permitAll() // GET comments is public
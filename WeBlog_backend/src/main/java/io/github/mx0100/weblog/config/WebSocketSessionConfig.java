@@ -0,0 +1,52 @@
+package io.github.mx0100.weblog.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * WebSocket outbound session configuration properties
+ * 
+ * @author mx0100
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "websocket.session")
+public class WebSocketSessionConfig {
+    
+    /**
+     * Maximum time in milliseconds a single send may block before the session is closed
+     */
+    private Integer sendTimeLimit = 10000;
+    
+    /**
+     * Maximum bytes buffered by the session decorator while a send is in progress
+     */
+    private Integer bufferSizeLimit = 512 * 1024;
+    
+    /**
+     * Maximum messages queued per session before new messages are dropped
+     */
+    private Integer queueCapacity = 256;
+    
+    /**
+     * Number of threads draining session queues
+     */
+    private Integer senderThreads = 4;
+    
+    /**
+     * Shared executor that drains per-session send queues
+     */
+    @Bean
+    public ThreadPoolTaskExecutor webSocketSendExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(senderThreads);
+        executor.setMaxPoolSize(senderThreads);
+        executor.setThreadNamePrefix("ws-send-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -49,10 +49,14 @@ public class CommentController {
     
     /**
      * Get comments by post ID with pagination
+     * Passing the cursor parameter (empty for the first slice) switches to keyset pagination;
+     * passing before (e.g. a post's commentsCursor) pages backwards from newer to older comments
      * 
      * @param postId post ID
-     * @param page page number (0-based)
+     * @param page page number (0-based, offset mode only)
      * @param size page size
+     * @param cursor keyset cursor from the previous slice (optional)
+     * @param before keyset cursor of the oldest comment already shown (optional)
      * @param userPrincipal current authenticated user
      * @return page response of comments
      */
@@ -60,7 +64,25 @@ public class CommentController {
     public ApiResponse<PageResponse<CommentResponse>> getCommentsByPostId(@PathVariable Long postId,
                                                                          @RequestParam(defaultValue = "0") Integer page,
                                                                          @RequestParam(defaultValue = "20") Integer size,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) String before,
                                                                          @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (before != null) {
+            log.info("Get comments request for post: {} by user: {} - before: {}, size: {}", 
+                    postId, userPrincipal.getUserId(), before, size);
+            
+            PageResponse<CommentResponse> slice = commentService.getCommentsByPostIdBefore(postId, userPrincipal.getUserId(), before, size);
+            return ApiResponse.success(slice);
+        }
+        
+        if (cursor != null) {
+            log.info("Get comments request for post: {} by user: {} - cursor: {}, size: {}", 
+                    postId, userPrincipal.getUserId(), cursor, size);
+            
+            PageResponse<CommentResponse> slice = commentService.getCommentsByPostIdByCursor(postId, userPrincipal.getUserId(), cursor, size);
+            return ApiResponse.success(slice);
+        }
+        
         log.info("Get comments request for post: {} by user: {} - page: {}, size: {}", 
                 postId, userPrincipal.getUserId(), page, size);
         
@@ -78,8 +100,8 @@ public class CommentController {
     @PostMapping("/comments/batch")
     public ApiResponse<List<CommentResponse>> getCommentsByIds(@Valid @RequestBody CommentBatchRequest request,
                                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
-        log.info("Get comments batch request for IDs: {} by user: {}", 
-                request.getCommentIds(), userPrincipal.getUserId());
+        log.info("Get comments batch request for {} IDs by user: {}", 
+                request.getCommentIds().size(), userPrincipal.getUserId());
         
         List<CommentResponse> comments = commentService.getCommentsByIds(request.getCommentIds(), userPrincipal.getUserId());
         return ApiResponse.success(comments);
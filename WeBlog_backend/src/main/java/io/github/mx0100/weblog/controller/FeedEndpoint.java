@@ -0,0 +1,40 @@
+package io.github.mx0100.weblog.controller;
+
+import io.github.mx0100.weblog.service.FeedProjector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint that rebuilds the feed read model
+ * Not exposed unless "feed" is added to management.endpoints.web.exposure.include;
+ * expose it on the management port only
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+@Endpoint(id = "feed")
+@RequiredArgsConstructor
+public class FeedEndpoint {
+    
+    private final FeedProjector feedProjector;
+    
+    /**
+     * Rebuild one timeline, or all of them when no owner is given
+     * 
+     * @param ownerId timeline owner ID (optional)
+     * @return number of entries written
+     */
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable Long ownerId) {
+        log.info("Feed rebuild requested for {}", ownerId != null ? "user " + ownerId : "all users");
+        int written = feedProjector.rebuild(ownerId);
+        return Map.of("entries", written);
+    }
+}
@@ -4,14 +4,23 @@ import io.github.mx0100.weblog.common.ApiResponse;
 import io.github.mx0100.weblog.dto.request.PostCreateRequest;
 import io.github.mx0100.weblog.dto.request.PostUpdateRequest;
 import io.github.mx0100.weblog.dto.response.PageResponse;
+import io.github.mx0100.weblog.dto.response.PostImportResponse;
 import io.github.mx0100.weblog.dto.response.PostResponse;
 import io.github.mx0100.weblog.security.UserPrincipal;
 import io.github.mx0100.weblog.service.PostService;
+import io.github.mx0100.weblog.service.PostTransferService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 /**
  * Post controller
@@ -26,6 +35,7 @@ import org.springframework.web.bind.annotation.*;
 public class PostController {
     
     private final PostService postService;
+    private final PostTransferService postTransferService;
     
     /**
      * Create new post
@@ -45,22 +55,70 @@ public class PostController {
     
     /**
      * Get posts with pagination (filtered by user relationship)
+     * Passing the cursor parameter (empty for the first slice) switches to keyset pagination
      * 
-     * @param page page number (0-based)
+     * @param page page number (0-based, offset mode only)
      * @param size page size
+     * @param cursor keyset cursor from the previous slice (optional)
+     * @param commentPreview embed this many latest comments per post instead of comment IDs (optional)
      * @param userPrincipal current authenticated user
      * @return page response of posts
      */
     @GetMapping
     public ApiResponse<PageResponse<PostResponse>> getPosts(@RequestParam(defaultValue = "0") Integer page,
                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer commentPreview,
                                                             @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        if (cursor != null) {
+            log.info("Get posts request by user: {} - cursor: {}, size: {}", userPrincipal.getUserId(), cursor, size);
+            
+            PageResponse<PostResponse> sliceResponse = postService.getPostsByCursor(userPrincipal.getUserId(), cursor, size, commentPreview);
+            return ApiResponse.success(sliceResponse);
+        }
+        
         log.info("Get posts request by user: {} - page: {}, size: {}", userPrincipal.getUserId(), page, size);
         
-        PageResponse<PostResponse> pageResponse = postService.getPosts(userPrincipal.getUserId(), page, size);
+        PageResponse<PostResponse> pageResponse = postService.getPosts(userPrincipal.getUserId(), page, size, commentPreview);
         return ApiResponse.success(pageResponse);
     }
     
+    /**
+     * Import posts and their comments from an NDJSON body (one post per line)
+     * 
+     * @param request raw request, read incrementally
+     * @param userPrincipal current authenticated user (author of the imported posts)
+     * @return number of imported posts and comments
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ApiResponse<PostImportResponse> importPosts(HttpServletRequest request,
+                                                       @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
+        log.info("Import posts request by user: {}", userPrincipal.getUserId());
+        
+        PostImportResponse importResponse = postTransferService.importPosts(userPrincipal.getUserId(), request.getInputStream());
+        return ApiResponse.success(importResponse);
+    }
+    
+    /**
+     * Export the current user's posts and their comments as NDJSON
+     * The body is streamed from database cursors after the handler returns
+     * 
+     * @param userPrincipal current authenticated user
+     * @return streamed NDJSON download
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long userId = userPrincipal.getUserId();
+        log.info("Export posts request by user: {}", userId);
+        
+        StreamingResponseBody body = output -> postTransferService.exportPosts(userId, output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"weblog-posts-" + userId + ".ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     /**
      * Get post by ID
      * 
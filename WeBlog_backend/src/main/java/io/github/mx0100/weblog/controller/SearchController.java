@@ -0,0 +1,46 @@
+package io.github.mx0100.weblog.controller;
+
+import io.github.mx0100.weblog.common.ApiResponse;
+import io.github.mx0100.weblog.dto.response.PageResponse;
+import io.github.mx0100.weblog.dto.response.SearchResultResponse;
+import io.github.mx0100.weblog.security.UserPrincipal;
+import io.github.mx0100.weblog.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Search controller
+ * Full-text search over the current user's and partner's posts and comments
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+    
+    private final SearchService searchService;
+    
+    /**
+     * Search posts and comments
+     * 
+     * @param q search query (web-search syntax: "quoted phrase", or, -exclude)
+     * @param cursor ranked cursor from the previous slice (optional)
+     * @param size slice size
+     * @param userPrincipal current authenticated user
+     * @return slice response of search results, best matches first
+     */
+    @GetMapping
+    public ApiResponse<PageResponse<SearchResultResponse>> search(@RequestParam String q,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "10") Integer size,
+                                                                  @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        log.info("Search request by user: {} - size: {}", userPrincipal.getUserId(), size);
+        
+        PageResponse<SearchResultResponse> response = searchService.search(userPrincipal.getUserId(), q, cursor, size);
+        return ApiResponse.success(response);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.mx0100.weblog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Message exchanged between backend nodes over the notification bus
+ * Notifications travel as outbox IDs only; the receiving node loads the stored payloads,
+ * which keeps messages small (PostgreSQL NOTIFY payloads are limited to 8000 bytes).
+ * Changes to per-node caches (partner map, feed cache, recent writers) are broadcast too
+ * 
+ * @author mx0100
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMessage {
+    
+    /**
+     * Message type
+     */
+    private String type;
+    
+    /**
+     * Node that sent the message
+     */
+    private String node;
+    
+    /**
+     * Per-node sequence number; also keeps messages published together distinct
+     * (NOTIFY folds identical payloads within one transaction)
+     */
+    private Long seq;
+    
+    /**
+     * Users that came online or went offline on the sending node (ONLINE / OFFLINE),
+     * the user and partner of a relationship change (RELATIONSHIP) or users who committed a write (WRITE)
+     */
+    private List<Long> userIds;
+    
+    /**
+     * Whether the relationship became active or ended (RELATIONSHIP)
+     */
+    private Boolean active;
+    
+    /**
+     * Feed cache couple keys evicted on the sending node (FEED_EVICT)
+     */
+    private List<String> coupleKeys;
+    
+    /**
+     * Outbox IDs of notifications to deliver (DELIVER)
+     */
+    private List<Long> notificationIds;
+    
+    /**
+     * Message type constants
+     */
+    public static class Type {
+        /**
+         * A node started or reconnected; other nodes reply with their online users
+         */
+        public static final String JOIN = "JOIN";
+        public static final String LEAVE = "LEAVE";
+        public static final String HEARTBEAT = "HEARTBEAT";
+        public static final String ONLINE = "ONLINE";
+        public static final String OFFLINE = "OFFLINE";
+        public static final String DELIVER = "DELIVER";
+        public static final String RELATIONSHIP = "RELATIONSHIP";
+        public static final String FEED_EVICT = "FEED_EVICT";
+        public static final String WRITE = "WRITE";
+    }
+    
+    public static ClusterMessage of(String type, String node) {
+        return ClusterMessage.builder().type(type).node(node).build();
+    }
+}
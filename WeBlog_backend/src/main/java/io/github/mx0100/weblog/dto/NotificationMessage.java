@@ -19,6 +19,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class NotificationMessage {
     
+    /**
+     * Notification ID from the outbox, used by clients as the replay cursor
+     */
+    private Long id;
+    
     /**
      * Notification type
      */
@@ -0,0 +1,43 @@
+package io.github.mx0100.weblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Notification resolved to a recipient but not yet rendered
+ * Stored in the outbox by the transaction that raised it; sender names are filled in
+ * when the recipient's mailbox is drained
+ * 
+ * @author mx0100
+ */
+@Getter
+@Builder(toBuilder = true)
+@Jacksonized
+public class PendingNotification {
+    
+    /**
+     * Outbox ID, assigned when the notification is stored (the row ID, not part of the stored JSON)
+     */
+    @JsonIgnore
+    private final Long id;
+    
+    private final String type;
+    
+    private final Long fromUserId;
+    
+    private final Long toUserId;
+    
+    /**
+     * Type-specific data (post ID, comment ID, content preview)
+     */
+    private final Map<String, Object> data;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime timestamp;
+}
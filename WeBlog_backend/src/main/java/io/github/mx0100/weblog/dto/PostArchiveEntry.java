@@ -0,0 +1,58 @@
+package io.github.mx0100.weblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One line of a post archive (NDJSON): a post with its comments
+ * Export writes this shape and import reads it back; IDs are informational on import,
+ * new IDs are always assigned
+ * 
+ * @author mx0100
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PostArchiveEntry {
+    
+    private Long postId;
+    private Long authorId;
+    private RichContent richContent;
+    
+    /**
+     * Original creation time (UTC); the import time is used when missing
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    /**
+     * Comments, oldest first
+     */
+    private List<CommentEntry> comments = new ArrayList<>();
+    
+    /**
+     * Archived comment
+     */
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CommentEntry {
+        private Long commentId;
+        
+        /**
+         * Comment author: the post author or their partner (defaults to the post author on import)
+         */
+        private Long authorId;
+        
+        private RichContent richContent;
+        
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.mx0100.weblog.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Opaque JSON value kept as its serialized text
+ * Deserialization copies the token stream without building a tree, and serialization writes
+ * the text verbatim, so stored JSON (e.g. a Quill delta) passes through to responses unparsed
+ * 
+ * @author mx0100
+ */
+@EqualsAndHashCode
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public final class RawJson {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper TREE_MAPPER = new ObjectMapper();
+    
+    private final String json;
+    
+    private RawJson(String json) {
+        this.json = json;
+    }
+    
+    /**
+     * Wrap JSON text that is already known to be valid
+     * 
+     * @param json JSON text
+     * @return raw JSON value or null if json is null
+     */
+    public static RawJson of(String json) {
+        return json != null ? new RawJson(json) : null;
+    }
+    
+    /**
+     * Get the JSON text
+     * 
+     * @return JSON text
+     */
+    public String getJson() {
+        return json;
+    }
+    
+    /**
+     * Parse the value into a tree (only when the structure is actually needed)
+     * 
+     * @return JSON tree
+     * @throws IOException if the text is not valid JSON
+     */
+    public JsonNode toJsonNode() throws IOException {
+        return TREE_MAPPER.readTree(json);
+    }
+    
+    /**
+     * Open a streaming parser over the value
+     * 
+     * @return JSON parser positioned before the first token
+     * @throws IOException if the parser cannot be created
+     */
+    public JsonParser createParser() throws IOException {
+        return JSON_FACTORY.createParser(json);
+    }
+    
+    @Override
+    public String toString() {
+        return json;
+    }
+    
+    /**
+     * Writes the stored text as-is
+     */
+    public static class Serializer extends JsonSerializer<RawJson> {
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(value.json);
+        }
+    }
+    
+    /**
+     * Copies the current JSON structure to text token by token
+     */
+    public static class Deserializer extends JsonDeserializer<RawJson> {
+        @Override
+        public RawJson deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator gen = JSON_FACTORY.createGenerator(writer)) {
+                gen.copyCurrentStructure(p);
+            }
+            return new RawJson(writer.toString());
+        }
+    }
+}
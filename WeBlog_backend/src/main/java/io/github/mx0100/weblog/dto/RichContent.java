@@ -7,11 +7,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Map;
-
 /**
  * Rich text content data structure
  * Supports both plain text and rich text formats
+ * Persisted as an immutable value: replace the whole object on an entity instead of mutating it
  * 
  * @author mx0100
  */
@@ -35,9 +34,9 @@ public class RichContent {
     
     /**
      * Rich text content in Delta format (for Quill.js)
-     * Only present when type is "rich_text"
+     * Only present when type is "rich_text"; kept as raw JSON text and passed through unparsed
      */
-    private Map<String, Object> delta;
+    private RawJson delta;
     
     /**
      * Plain text representation
@@ -59,7 +58,7 @@ public class RichContent {
     /**
      * Create a rich text content
      */
-    public static RichContent createRichText(Map<String, Object> delta, String plainText) {
+    public static RichContent createRichText(RawJson delta, String plainText) {
         return RichContent.builder()
                 .type("rich_text")
                 .version("1.0")
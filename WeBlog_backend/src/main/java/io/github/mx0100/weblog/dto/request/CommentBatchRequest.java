@@ -1,6 +1,7 @@
 package io.github.mx0100.weblog.dto.request;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.util.List;
@@ -13,6 +14,12 @@ import java.util.List;
 @Data
 public class CommentBatchRequest {
     
+    /**
+     * Maximum number of comment IDs per batch request
+     */
+    public static final int MAX_COMMENT_IDS = 200;
+    
     @NotEmpty(message = "Comment IDs cannot be empty")
+    @Size(max = MAX_COMMENT_IDS, message = "At most " + MAX_COMMENT_IDS + " comment IDs per request")
     private List<Long> commentIds;
 } 
\ No newline at end of file
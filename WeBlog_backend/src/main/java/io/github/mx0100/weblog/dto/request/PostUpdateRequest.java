@@ -1,10 +1,17 @@
 package io.github.mx0100.weblog.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.utils.DeltaTextExtractor;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Post update request DTO with rich text content support
@@ -22,26 +29,61 @@ public class PostUpdateRequest {
     @NotNull(message = "Rich content cannot be null")
     private RichContent richContent;
     
+    /**
+     * Server-side extraction of richContent, computed on first use
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DeltaTextExtractor.ExtractedText extractedContent;
+    
+    /**
+     * Set rich content
+     */
+    public void setRichContent(RichContent richContent) {
+        this.richContent = richContent;
+        this.extractedContent = null;
+    }
+    
     /**
      * Validate that rich content is provided and valid
      */
     public boolean hasValidContent() {
-        return richContent != null && richContent.isValid() && 
-               !richContent.getDisplayText().trim().isEmpty();
+        RichContent effectiveContent = getEffectiveContent();
+        return effectiveContent != null && effectiveContent.isValid() && 
+               !effectiveContent.getDisplayText().isEmpty();
+    }
+    
+    /**
+     * Get the extracted content: plain text derived from the delta (the client's plainText is
+     * not trusted for rich text), plus preview and word count
+     */
+    @JsonIgnore
+    public DeltaTextExtractor.ExtractedText getExtractedContent() {
+        if (extractedContent == null && richContent != null) {
+            extractedContent = DeltaTextExtractor.extract(richContent);
+        }
+        return extractedContent;
     }
     
     /**
-     * Get effective content
+     * Get effective content (with the server-derived plain text)
      */
+    @JsonIgnore
     public RichContent getEffectiveContent() {
-        return richContent;
+        DeltaTextExtractor.ExtractedText extracted = getExtractedContent();
+        return extracted != null ? extracted.getContent() : null;
     }
     
     /**
      * Get plain text representation for validation
      */
+    @JsonIgnore
     public String getPlainTextForValidation() {
-        return richContent != null ? richContent.getDisplayText() : "";
+        RichContent effectiveContent = getEffectiveContent();
+        return effectiveContent != null ? effectiveContent.getDisplayText() : "";
     }
     
     /**
@@ -49,7 +91,7 @@ public class PostUpdateRequest {
      * Creates a plain text RichContent
      */
     public void setPlainTextContent(String plainText) {
-        this.richContent = RichContent.createPlainText(plainText != null ? plainText : "");
+        setRichContent(RichContent.createPlainText(plainText != null ? plainText : ""));
     }
     
     /**
@@ -1,5 +1,6 @@
 package io.github.mx0100.weblog.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import org.springframework.data.domain.Page;
 
@@ -7,11 +8,13 @@ import java.util.List;
 
 /**
  * Page response DTO
+ * Offset pages carry page/total information, keyset slices carry a cursor instead
  * 
  * @param <T> content type
  * @author mx0100
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     
     private List<T> content;
@@ -22,6 +25,16 @@ public class PageResponse<T> {
     private Boolean first;
     private Boolean last;
     
+    /**
+     * Cursor of the next slice (keyset mode only, null on the last slice)
+     */
+    private String nextCursor;
+    
+    /**
+     * Whether another slice follows (keyset mode only)
+     */
+    private Boolean hasNext;
+    
     /**
      * Create PageResponse from Spring Data Page
      * 
@@ -40,4 +53,25 @@ public class PageResponse<T> {
         response.setLast(page.isLast());
         return response;
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Create slice-style PageResponse for keyset pagination (no total count)
+     * 
+     * @param content slice content
+     * @param size requested slice size
+     * @param first whether this is the first slice
+     * @param nextCursor cursor of the next slice, or null if this is the last slice
+     * @param <T> content type
+     * @return PageResponse
+     */
+    public static <T> PageResponse<T> ofSlice(List<T> content, Integer size, boolean first, String nextCursor) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(content);
+        response.setSize(size);
+        response.setFirst(first);
+        response.setLast(nextCursor == null);
+        response.setHasNext(nextCursor != null);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.mx0100.weblog.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post import result DTO
+ * 
+ * @author mx0100
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostImportResponse {
+    
+    private long importedPosts;
+    private long importedComments;
+}
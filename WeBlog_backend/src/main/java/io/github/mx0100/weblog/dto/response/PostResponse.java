@@ -26,9 +26,24 @@ public class PostResponse {
      */
     private RichContent richContent;
     
+    /**
+     * Plain-text preview of the content (timeline lists only)
+     */
+    private String preview;
+    
     private List<Long> comments; // 评论ID列表
     private Integer commentsCount; // 评论数量
     
+    /**
+     * Latest comments, oldest first (comment preview mode only, replaces the comment ID list)
+     */
+    private List<CommentResponse> latestComments;
+    
+    /**
+     * Cursor for loading comments older than the preview (null when the preview holds every comment)
+     */
+    private String commentsCursor;
+    
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
     
@@ -0,0 +1,52 @@
+package io.github.mx0100.weblog.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Search result DTO (a matching post or comment)
+ * 
+ * @author mx0100
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResultResponse {
+    
+    /**
+     * "POST" or "COMMENT"
+     */
+    private String type;
+    
+    private Long postId;
+    
+    /**
+     * Set for comment matches only
+     */
+    private Long commentId;
+    
+    private Long userId;
+    private AuthorInfo author;
+    
+    /**
+     * HTML-escaped fragments of the plain text with matched terms wrapped in &lt;mark&gt;
+     */
+    private String highlight;
+    
+    private Float rank;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    /**
+     * Author info nested class
+     */
+    @Data
+    public static class AuthorInfo {
+        private Long userId;
+        private String username;
+        private String nickname;
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.mx0100.weblog.entity;
 
 import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.utils.DeltaTextExtractor;
 import io.github.mx0100.weblog.utils.RichContentConverter;
 import io.github.mx0100.weblog.utils.TimeUtils;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -23,7 +26,8 @@ import java.time.LocalDateTime;
 public class Comment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comments_comment_id_seq", allocationSize = 50)
     @Column(name = "comment_id")
     private Long commentId;
     
@@ -41,6 +45,21 @@ public class Comment {
     @Convert(converter = RichContentConverter.class)
     private RichContent richContent;
     
+    /**
+     * Whitespace-collapsed start of the plain text, derived whenever the content is set
+     * (lets previews skip reading the JSONB document)
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "preview", length = DeltaTextExtractor.PREVIEW_LENGTH)
+    private String preview;
+    
+    /**
+     * Number of words in the plain text, derived whenever the content is set
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "word_count")
+    private Integer wordCount;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -48,17 +67,26 @@ public class Comment {
     private LocalDateTime updatedAt;
     
     /**
-     * Set rich content
+     * Set rich content (plain text, preview and word count are derived from it)
      */
     public void setRichContent(RichContent richContent) {
-        this.richContent = richContent != null ? richContent : RichContent.createPlainText("");
+        setExtractedContent(DeltaTextExtractor.extract(richContent));
+    }
+    
+    /**
+     * Set content that has already been through the extractor
+     */
+    public void setExtractedContent(DeltaTextExtractor.ExtractedText extracted) {
+        this.richContent = extracted.getContent();
+        this.preview = extracted.getPreview();
+        this.wordCount = extracted.getWordCount();
     }
     
     /**
      * Set plain text content (convenience method)
      */
     public void setPlainTextContent(String plainText) {
-        this.richContent = RichContent.createPlainText(plainText != null ? plainText : "");
+        setRichContent(RichContent.createPlainText(plainText != null ? plainText : ""));
     }
     
     /**
@@ -93,7 +121,7 @@ public class Comment {
         
         // Ensure rich content is valid
         if (richContent == null) {
-            this.richContent = RichContent.createPlainText("");
+            setPlainTextContent("");
         }
     }
     
@@ -106,7 +134,7 @@ public class Comment {
         
         // Ensure rich content is valid
         if (richContent == null) {
-            this.richContent = RichContent.createPlainText("");
+            setPlainTextContent("");
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package io.github.mx0100.weblog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Feed read model entity - one row per (timeline owner, visible post)
+ * Rows are written by FeedProjector; reads are a single range scan on (owner_id, created_at, post_id)
+ * 
+ * @author mx0100
+ */
+@Data
+@Entity
+@IdClass(FeedEntry.Key.class)
+@Table(name = "feed_entries",
+       indexes = @Index(name = "idx_feed_entries_owner_created", columnList = "owner_id, created_at DESC, post_id DESC"))
+public class FeedEntry {
+    
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+    
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+    
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    /**
+     * Author snapshot taken when the entry was written
+     */
+    @Column(name = "author_username", nullable = false, length = 50)
+    private String authorUsername;
+    
+    @Column(name = "author_nickname", nullable = false, length = 100)
+    private String authorNickname;
+    
+    @Column(name = "comment_count", nullable = false)
+    private Integer commentCount = 0;
+    
+    @Column(name = "preview", columnDefinition = "TEXT")
+    private String preview;
+    
+    /**
+     * Composite primary key
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ownerId;
+        private Long postId;
+    }
+}
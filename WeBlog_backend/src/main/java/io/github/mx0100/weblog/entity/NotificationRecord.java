@@ -0,0 +1,44 @@
+package io.github.mx0100.weblog.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification outbox entity
+ * Rows are written in batches by NotificationOutbox; the mapping keeps schema validation and local DDL in sync
+ * 
+ * @author mx0100
+ */
+@Data
+@Entity
+@Table(name = "notifications")
+public class NotificationRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+    
+    @Column(name = "type", nullable = false, length = 50)
+    private String type;
+    
+    /**
+     * Serialized notification message (JSONb format)
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "jsonb", nullable = false)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
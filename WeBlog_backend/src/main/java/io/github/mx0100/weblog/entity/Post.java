@@ -1,11 +1,15 @@
 package io.github.mx0100.weblog.entity;
 
 import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.utils.DeltaTextExtractor;
 import io.github.mx0100.weblog.utils.RichContentConverter;
 import io.github.mx0100.weblog.utils.TimeUtils;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
@@ -22,8 +26,12 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(callSuper = false)
 public class Post {
     
+    /**
+     * Pooled sequence IDs (allocation size matches the sequence increment), so inserts can be batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "posts_post_id_seq", allocationSize = 50)
     @Column(name = "post_id")
     private Long postId;
     
@@ -38,6 +46,29 @@ public class Post {
     @Convert(converter = RichContentConverter.class)
     private RichContent richContent;
     
+    /**
+     * Whitespace-collapsed start of the plain text, derived whenever the content is set
+     * (lets previews skip reading the JSONB document)
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "preview", length = DeltaTextExtractor.PREVIEW_LENGTH)
+    private String preview;
+    
+    /**
+     * Number of words in the plain text, derived whenever the content is set
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "word_count")
+    private Integer wordCount;
+    
+    /**
+     * Number of comments, maintained by PostRepository.incrementCommentCount
+     * (never written through the entity, so saving a post cannot overwrite it)
+     */
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private Integer commentCount = 0;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -45,17 +76,26 @@ public class Post {
     private LocalDateTime updatedAt;
     
     /**
-     * Set rich content
+     * Set rich content (plain text, preview and word count are derived from it)
      */
     public void setRichContent(RichContent richContent) {
-        this.richContent = richContent != null ? richContent : RichContent.createPlainText("");
+        setExtractedContent(DeltaTextExtractor.extract(richContent));
+    }
+    
+    /**
+     * Set content that has already been through the extractor
+     */
+    public void setExtractedContent(DeltaTextExtractor.ExtractedText extracted) {
+        this.richContent = extracted.getContent();
+        this.preview = extracted.getPreview();
+        this.wordCount = extracted.getWordCount();
     }
     
     /**
      * Set plain text content (convenience method)
      */
     public void setPlainTextContent(String plainText) {
-        this.richContent = RichContent.createPlainText(plainText != null ? plainText : "");
+        setRichContent(RichContent.createPlainText(plainText != null ? plainText : ""));
     }
     
     /**
@@ -90,7 +130,7 @@ public class Post {
         
         // Ensure rich content is valid
         if (richContent == null) {
-            this.richContent = RichContent.createPlainText("");
+            setPlainTextContent("");
         }
     }
     
@@ -103,7 +143,7 @@ public class Post {
         
         // Ensure rich content is valid
         if (richContent == null) {
-            this.richContent = RichContent.createPlainText("");
+            setPlainTextContent("");
         }
     }
 } 
\ No newline at end of file
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class UserRelationship {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_relationship_seq")
+    @SequenceGenerator(name = "user_relationship_seq", sequenceName = "user_relationships_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
@@ -0,0 +1,33 @@
+package io.github.mx0100.weblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a comment is created or deleted
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class CommentEvent {
+    
+    public enum Kind {
+        CREATED, DELETED
+    }
+    
+    private final Kind kind;
+    
+    private final Long commentId;
+    
+    private final Long authorId;
+    
+    private final Long postId;
+    
+    private final Long postAuthorId;
+    
+    /**
+     * Stored preview of the content at the time of the change (null on deletion)
+     */
+    private final String preview;
+}
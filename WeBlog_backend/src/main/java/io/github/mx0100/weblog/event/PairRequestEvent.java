@@ -0,0 +1,31 @@
+package io.github.mx0100.weblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a pair request is sent or rejected
+ * Accepting a request is published as {@link RelationshipChangedEvent}
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class PairRequestEvent {
+    
+    public enum Kind {
+        REQUESTED, REJECTED
+    }
+    
+    private final Kind kind;
+    
+    /**
+     * User who sent (REQUESTED) or rejected (REJECTED) the request
+     */
+    private final Long fromUserId;
+    
+    /**
+     * User who should be notified
+     */
+    private final Long toUserId;
+}
@@ -0,0 +1,29 @@
+package io.github.mx0100.weblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a post is created, updated or deleted
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class PostEvent {
+    
+    public enum Kind {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final Kind kind;
+    
+    private final Long postId;
+    
+    private final Long authorId;
+    
+    /**
+     * Stored preview of the content at the time of the change (null on deletion)
+     */
+    private final String preview;
+}
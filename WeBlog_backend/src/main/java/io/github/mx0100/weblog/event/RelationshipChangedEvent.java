@@ -0,0 +1,23 @@
+package io.github.mx0100.weblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when two users become coupled or end their relationship
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class RelationshipChangedEvent {
+    
+    private final Long userId;
+    
+    private final Long partnerId;
+    
+    /**
+     * true if the relationship became ACTIVE, false if it ended
+     */
+    private final boolean active;
+}
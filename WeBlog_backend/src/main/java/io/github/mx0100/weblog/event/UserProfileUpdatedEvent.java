@@ -0,0 +1,18 @@
+package io.github.mx0100.weblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published when a user's public profile changes
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfileUpdatedEvent {
+    
+    private final Long userId;
+    
+    private final String nickname;
+}
@@ -58,6 +58,19 @@ public class GlobalExceptionHandler {
         return ApiResponse.error(ResponseCode.BAD_REQUEST, ex.getMessage());
     }
     
+    /**
+     * Handle saturated resource exceptions
+     * 
+     * @param ex service busy exception
+     * @return error response
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ApiResponse<Void> handleServiceBusyException(ServiceBusyException ex) {
+        log.warn("Service busy: {}", ex.getMessage());
+        return ApiResponse.error(ResponseCode.TOO_MANY_REQUESTS);
+    }
+    
     /**
      * Handle business logic exceptions
      * 
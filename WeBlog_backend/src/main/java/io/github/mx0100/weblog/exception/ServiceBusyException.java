@@ -0,0 +1,17 @@
+package io.github.mx0100.weblog.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request should be retried later
+ * 
+ * @author mx0100
+ */
+public class ServiceBusyException extends RuntimeException {
+    
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+    
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
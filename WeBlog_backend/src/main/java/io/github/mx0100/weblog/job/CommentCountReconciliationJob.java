@@ -0,0 +1,43 @@
+package io.github.mx0100.weblog.job;
+
+import io.github.mx0100.weblog.config.FeedReadModelConfig;
+import io.github.mx0100.weblog.repository.FeedEntryRepository;
+import io.github.mx0100.weblog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that repairs drift between posts.comment_count and the comments table
+ * (and copies the repaired counts into the feed read model when it is enabled)
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class CommentCountReconciliationJob extends QuartzJobBean {
+    
+    private final PostRepository postRepository;
+    private final FeedEntryRepository feedEntryRepository;
+    private final FeedReadModelConfig feedReadModelConfig;
+    
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        int repaired = postRepository.reconcileCommentCounts();
+        if (repaired > 0) {
+            log.warn("Repaired comment count on {} posts", repaired);
+        } else {
+            log.debug("Comment counts are consistent");
+        }
+        
+        if (feedReadModelConfig.isEnabled()) {
+            int feedRepaired = feedEntryRepository.reconcileCommentCounts();
+            if (feedRepaired > 0) {
+                log.warn("Repaired comment count on {} feed entries", feedRepaired);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.mx0100.weblog.job;
+
+import io.github.mx0100.weblog.service.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that deletes expired notifications from the outbox
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class NotificationPurgeJob extends QuartzJobBean {
+    
+    private final NotificationOutbox notificationOutbox;
+    
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        int deleted = notificationOutbox.purgeExpired();
+        log.info("Purged {} expired notifications", deleted);
+    }
+}
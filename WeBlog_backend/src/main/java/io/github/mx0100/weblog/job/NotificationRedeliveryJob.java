@@ -0,0 +1,29 @@
+package io.github.mx0100.weblog.job;
+
+import io.github.mx0100.weblog.service.NotificationDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that dispatches notifications left pending in the outbox again
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class NotificationRedeliveryJob extends QuartzJobBean {
+    
+    private final NotificationDispatcher notificationDispatcher;
+    
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        int redelivered = notificationDispatcher.redeliverStale();
+        if (redelivered > 0) {
+            log.info("Redelivered {} pending notifications", redelivered);
+        }
+    }
+}
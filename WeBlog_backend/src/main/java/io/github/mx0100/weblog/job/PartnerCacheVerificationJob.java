@@ -0,0 +1,27 @@
+package io.github.mx0100.weblog.job;
+
+import io.github.mx0100.weblog.service.PartnerCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that verifies the in-memory partner cache against the database
+ * Instantiated by the Spring-aware Quartz job factory, so dependencies are constructor-injected
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class PartnerCacheVerificationJob extends QuartzJobBean {
+    
+    private final PartnerCache partnerCache;
+    
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        partnerCache.verify();
+    }
+}
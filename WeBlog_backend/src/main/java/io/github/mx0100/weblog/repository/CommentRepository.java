@@ -1,12 +1,21 @@
 package io.github.mx0100.weblog.repository;
 
 import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.repository.projection.PostCommentId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Comment repository interface
@@ -41,6 +50,92 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     List<Comment> findByPostIdIn(List<Long> postIds);
     
+    /**
+     * Find the first keyset slice of comments by post ID (no count query)
+     * 
+     * @param postId post ID
+     * @param pageable slice limit (page number must be 0)
+     * @return list of comments ordered by creation time and ID asc
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<Comment> findSliceByPostId(@Param("postId") Long postId, Pageable pageable);
+    
+    /**
+     * Find the keyset slice of comments following the given cursor (no count query)
+     * Backed by index (post_id, created_at, comment_id)
+     * 
+     * @param postId post ID
+     * @param createdAt creation time of the last comment of the previous slice
+     * @param commentId ID of the last comment of the previous slice
+     * @param pageable slice limit (page number must be 0)
+     * @return list of comments ordered by creation time and ID asc
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.commentId > :commentId)) " +
+           "ORDER BY c.createdAt ASC, c.commentId ASC")
+    List<Comment> findSliceByPostIdAfter(@Param("postId") Long postId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("commentId") Long commentId,
+                                         Pageable pageable);
+    
+    /**
+     * Find the newest comments preceding the given cursor (no count query)
+     * Used to page backwards from a comment preview; backed by index (post_id, created_at, comment_id)
+     * 
+     * @param postId post ID
+     * @param createdAt creation time of the oldest comment already shown
+     * @param commentId ID of the oldest comment already shown
+     * @param pageable slice limit (page number must be 0)
+     * @return list of comments ordered by creation time and ID desc
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.commentId < :commentId)) " +
+           "ORDER BY c.createdAt DESC, c.commentId DESC")
+    List<Comment> findSliceByPostIdBefore(@Param("postId") Long postId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("commentId") Long commentId,
+                                          Pageable pageable);
+    
+    /**
+     * Find the newest comments of a post (no count query)
+     * 
+     * @param postId post ID
+     * @param pageable slice limit (page number must be 0)
+     * @return list of comments ordered by creation time and ID desc
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt DESC, c.commentId DESC")
+    List<Comment> findLatestSliceByPostId(@Param("postId") Long postId, Pageable pageable);
+    
+    /**
+     * Find the latest comments of each post in a single windowed query
+     * The select lists must name every column mapped on Comment
+     * 
+     * @param postIds post ID collection
+     * @param limit maximum number of comments per post
+     * @return comments grouped by post, oldest first within each post
+     */
+    @Query(value = "SELECT ranked.comment_id, ranked.post_id, ranked.user_id, ranked.content_rich, " +
+                   "       ranked.preview, ranked.word_count, ranked.created_at, ranked.updated_at " +
+                   "FROM (SELECT c.comment_id, c.post_id, c.user_id, c.content_rich, c.preview, c.word_count, " +
+                   "             c.created_at, c.updated_at, " +
+                   "             ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.comment_id DESC) AS rn " +
+                   "      FROM comments c WHERE c.post_id IN (:postIds)) ranked " +
+                   "WHERE ranked.rn <= :limit " +
+                   "ORDER BY ranked.post_id, ranked.created_at ASC, ranked.comment_id ASC",
+           nativeQuery = true)
+    List<Comment> findLatestByPostIdIn(@Param("postIds") Collection<Long> postIds, @Param("limit") int limit);
+    
+    /**
+     * Find comment IDs for multiple posts in a single query
+     * Only IDs are selected, comment content is not loaded
+     * 
+     * @param postIds post ID collection
+     * @return post/comment ID pairs ordered by post and creation time asc
+     */
+    @Query("SELECT c.postId AS postId, c.commentId AS commentId FROM Comment c " +
+           "WHERE c.postId IN :postIds ORDER BY c.postId, c.createdAt ASC")
+    List<PostCommentId> findCommentIdsByPostIdIn(@Param("postIds") Collection<Long> postIds);
+    
     /**
      * Find comments by comment ID list
      * 
@@ -49,6 +144,35 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     List<Comment> findByCommentIdIn(List<Long> commentIds);
     
+    /**
+     * Find comments by ID that belong to posts of the given authors (single joined query)
+     * Used for batch reads: the author set is the viewer plus their partner, so the join
+     * doubles as the access check
+     * 
+     * @param commentIds comment ID collection
+     * @param postOwnerIds IDs of the users whose posts the viewer may read
+     * @return accessible comments
+     */
+    @Query("SELECT c FROM Comment c JOIN Post p ON p.postId = c.postId " +
+           "WHERE c.commentId IN :commentIds AND p.userId IN :postOwnerIds")
+    List<Comment> findAccessibleByCommentIdIn(@Param("commentIds") Collection<Long> commentIds,
+                                              @Param("postOwnerIds") Collection<Long> postOwnerIds);
+    
+    /**
+     * Stream the comments on all posts of a user from a forward-only cursor
+     * Ordered like PostRepository.streamByUserId so both streams can be merged post by post
+     * 
+     * @param userId ID of the post author
+     * @return stream of comments grouped by post, oldest first within each post (close after use)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Comment c JOIN Post p ON p.postId = c.postId WHERE p.userId = :userId " +
+           "ORDER BY p.createdAt ASC, p.postId ASC, c.createdAt ASC, c.commentId ASC")
+    Stream<Comment> streamByPostUserId(@Param("userId") Long userId);
+    
     /**
      * Find comments by user ID
      * 
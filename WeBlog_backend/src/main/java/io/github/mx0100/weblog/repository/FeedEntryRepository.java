@@ -0,0 +1,71 @@
+package io.github.mx0100.weblog.repository;
+
+import io.github.mx0100.weblog.entity.FeedEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Feed entry repository interface
+ * 
+ * @author mx0100
+ */
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, FeedEntry.Key> {
+    
+    /**
+     * Find a page of an owner's timeline
+     * 
+     * @param ownerId timeline owner ID
+     * @param pageable pageable
+     * @return page of feed entries ordered by creation time and post ID desc
+     */
+    Page<FeedEntry> findByOwnerIdOrderByCreatedAtDescPostIdDesc(Long ownerId, Pageable pageable);
+    
+    /**
+     * Find the first keyset slice of an owner's timeline (no count query)
+     * 
+     * @param ownerId timeline owner ID
+     * @param pageable slice limit (page number must be 0)
+     * @return list of feed entries ordered by creation time and post ID desc
+     */
+    @Query("SELECT f FROM FeedEntry f WHERE f.ownerId = :ownerId ORDER BY f.createdAt DESC, f.postId DESC")
+    List<FeedEntry> findSlice(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    /**
+     * Find the keyset slice of an owner's timeline following the given cursor (no count query)
+     * 
+     * @param ownerId timeline owner ID
+     * @param createdAt creation time of the last post of the previous slice
+     * @param postId ID of the last post of the previous slice
+     * @param pageable slice limit (page number must be 0)
+     * @return list of feed entries ordered by creation time and post ID desc
+     */
+    @Query("SELECT f FROM FeedEntry f WHERE f.ownerId = :ownerId " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.postId < :postId)) " +
+           "ORDER BY f.createdAt DESC, f.postId DESC")
+    List<FeedEntry> findSliceAfter(@Param("ownerId") Long ownerId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("postId") Long postId,
+                                   Pageable pageable);
+    
+    /**
+     * Copy drifted comment counters from posts
+     * 
+     * @return number of repaired entries
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE feed_entries f SET comment_count = p.comment_count " +
+                   "FROM posts p WHERE f.post_id = p.post_id AND f.comment_count <> p.comment_count",
+           nativeQuery = true)
+    int reconcileCommentCounts();
+}
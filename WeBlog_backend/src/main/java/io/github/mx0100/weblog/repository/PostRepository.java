@@ -1,14 +1,21 @@
 package io.github.mx0100.weblog.repository;
 
 import io.github.mx0100.weblog.entity.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Post repository interface
@@ -36,6 +43,34 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      */
     Page<Post> findByUserIdInOrderByCreatedAtDesc(List<Long> userIds, Pageable pageable);
     
+    /**
+     * Find the first keyset slice of posts by multiple user IDs (no count query)
+     * 
+     * @param userIds list of user IDs
+     * @param pageable slice limit (page number must be 0)
+     * @return list of posts ordered by creation time and ID desc
+     */
+    @Query("SELECT p FROM Post p WHERE p.userId IN :userIds ORDER BY p.createdAt DESC, p.postId DESC")
+    List<Post> findSliceByUserIdIn(@Param("userIds") List<Long> userIds, Pageable pageable);
+    
+    /**
+     * Find the keyset slice of posts following the given cursor (no count query)
+     * Backed by index (user_id, created_at DESC, post_id DESC)
+     * 
+     * @param userIds list of user IDs
+     * @param createdAt creation time of the last post of the previous slice
+     * @param postId ID of the last post of the previous slice
+     * @param pageable slice limit (page number must be 0)
+     * @return list of posts ordered by creation time and ID desc
+     */
+    @Query("SELECT p FROM Post p WHERE p.userId IN :userIds " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.postId < :postId)) " +
+           "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<Post> findSliceByUserIdInAfter(@Param("userIds") List<Long> userIds,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("postId") Long postId,
+                                        Pageable pageable);
+    
     /**
      * Find all posts with pagination ordered by creation time desc
      * 
@@ -59,4 +94,44 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * @return list of posts
      */
     List<Post> findByUserIdInOrderByCreatedAtDesc(List<Long> userIds);
-} 
\ No newline at end of file
+    
+    /**
+     * Stream all posts of a user, oldest first, from a forward-only cursor
+     * Must be consumed inside a transaction (the PostgreSQL driver only honours the fetch size
+     * with auto-commit off); entities are read-only and should be detached once written out
+     * 
+     * @param userId user ID
+     * @return stream of posts ordered by creation time and ID asc (close after use)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Post p WHERE p.userId = :userId ORDER BY p.createdAt ASC, p.postId ASC")
+    Stream<Post> streamByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Atomically adjust a post's comment counter (runs in the caller's transaction)
+     * 
+     * @param postId post ID
+     * @param delta amount to add (negative to subtract)
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta WHERE p.postId = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") int delta);
+    
+    /**
+     * Recompute comment counters that have drifted from the comments table
+     * 
+     * @return number of repaired posts
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE posts p SET comment_count = c.cnt " +
+                   "FROM (SELECT p2.post_id, COUNT(c2.comment_id) AS cnt FROM posts p2 " +
+                   "      LEFT JOIN comments c2 ON c2.post_id = p2.post_id GROUP BY p2.post_id) c " +
+                   "WHERE p.post_id = c.post_id AND p.comment_count <> c.cnt",
+           nativeQuery = true)
+    int reconcileCommentCounts();
+}
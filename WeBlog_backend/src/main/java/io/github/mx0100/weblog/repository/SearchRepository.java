@@ -0,0 +1,108 @@
+package io.github.mx0100.weblog.repository;
+
+import io.github.mx0100.weblog.repository.projection.SearchHit;
+import io.github.mx0100.weblog.utils.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text search over posts and comments (search_vector columns, GIN indexed)
+ * Results are ordered by rank, then kind and ID, so a (rank, kind, id) cursor pages through
+ * them without offsets; headlines are only computed for the rows of the returned slice
+ * 
+ * @author mx0100
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchRepository {
+    
+    public static final String KIND_POST = "POST";
+    public static final String KIND_COMMENT = "COMMENT";
+    
+    /**
+     * Control characters marking matched terms in headlines (cannot clash with user text after escaping)
+     */
+    public static final char MATCH_START = '\u0002';
+    public static final char MATCH_END = '\u0003';
+    
+    private static final String HEADLINE_OPTIONS = "StartSel=" + MATCH_START + ", StopSel=" + MATCH_END
+            + ", MaxFragments=2, MaxWords=25, MinWords=8, FragmentDelimiter=\" … \"";
+    
+    /**
+     * Matches among posts of the given authors and comments on those posts
+     */
+    private static final String HITS_SQL =
+            "WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query), " +
+            "hits AS (" +
+            "    SELECT 'POST' AS kind, p.post_id AS id, p.post_id, p.user_id, p.created_at, " +
+            "           ts_rank(p.search_vector, q.query) AS rank " +
+            "    FROM posts p CROSS JOIN q " +
+            "    WHERE p.user_id IN (:userIds) AND p.search_vector @@ q.query " +
+            "    UNION ALL " +
+            "    SELECT 'COMMENT', c.comment_id, c.post_id, c.user_id, c.created_at, " +
+            "           ts_rank(c.search_vector, q.query) " +
+            "    FROM comments c JOIN posts p ON p.post_id = c.post_id CROSS JOIN q " +
+            "    WHERE p.user_id IN (:userIds) AND c.search_vector @@ q.query" +
+            "), ";
+    
+    private static final String FIRST_PAGE_SQL =
+            "page AS (SELECT * FROM hits ORDER BY rank DESC, kind DESC, id DESC LIMIT :limit) ";
+    
+    private static final String PAGE_AFTER_SQL =
+            "page AS (SELECT * FROM hits " +
+            "         WHERE (rank, kind, id) < (CAST(:afterRank AS real), :afterKind, :afterId) " +
+            "         ORDER BY rank DESC, kind DESC, id DESC LIMIT :limit) ";
+    
+    private static final String SELECT_SQL =
+            "SELECT page.kind, page.id, page.post_id, page.user_id, page.created_at, page.rank, " +
+            "       ts_headline('simple', COALESCE(CASE WHEN page.kind = 'POST' THEN p.content_rich ->> 'plainText' " +
+            "                                          ELSE c.content_rich ->> 'plainText' END, ''), " +
+            "                   q.query, :headlineOptions) AS headline " +
+            "FROM page CROSS JOIN q " +
+            "LEFT JOIN posts p ON page.kind = 'POST' AND p.post_id = page.id " +
+            "LEFT JOIN comments c ON page.kind = 'COMMENT' AND c.comment_id = page.id " +
+            "ORDER BY page.rank DESC, page.kind DESC, page.id DESC";
+    
+    private static final RowMapper<SearchHit> HIT_MAPPER = (rs, rowNum) -> new SearchHit(
+            rs.getString("kind"),
+            rs.getLong("id"),
+            rs.getLong("post_id"),
+            rs.getLong("user_id"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getFloat("rank"),
+            rs.getString("headline"));
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    /**
+     * Find the next slice of matches
+     * 
+     * @param query web-search style query (quoted phrases, OR, -exclusion)
+     * @param userIds authors whose posts (and the comments on them) are searched
+     * @param after cursor of the last row of the previous slice, or null for the first slice
+     * @param limit maximum number of rows
+     * @return matches ordered by rank, kind and ID desc
+     */
+    public List<SearchHit> search(String query, Collection<Long> userIds, CursorUtils.RankedCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("userIds", userIds)
+                .addValue("limit", limit)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+        
+        if (after == null) {
+            return jdbcTemplate.query(HITS_SQL + FIRST_PAGE_SQL + SELECT_SQL, params, HIT_MAPPER);
+        }
+        
+        params.addValue("afterRank", after.getRank())
+                .addValue("afterKind", after.getKind())
+                .addValue("afterId", after.getId());
+        return jdbcTemplate.query(HITS_SQL + PAGE_AFTER_SQL + SELECT_SQL, params, HIT_MAPPER);
+    }
+}
@@ -26,6 +26,14 @@ public interface UserRelationshipRepository extends JpaRepository<UserRelationsh
     @Query("SELECT ur FROM UserRelationship ur WHERE (ur.user1Id = :userId OR ur.user2Id = :userId) AND ur.status = 'ACTIVE'")
     Optional<UserRelationship> findActiveRelationshipByUserId(@Param("userId") Long userId);
     
+    /**
+     * Find all active relationships
+     * 
+     * @return list of active relationships
+     */
+    @Query("SELECT ur FROM UserRelationship ur WHERE ur.status = 'ACTIVE'")
+    List<UserRelationship> findAllActiveRelationships();
+    
     /**
      * Find all relationships (active and inactive) for a user
      * 
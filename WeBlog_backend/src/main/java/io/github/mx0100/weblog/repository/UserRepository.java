@@ -1,9 +1,17 @@
 package io.github.mx0100.weblog.repository;
 
 import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +25,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    /**
+     * Load author summaries for a set of users (single query, public columns only)
+     *
+     * @param userIds user IDs
+     * @return summaries of the users that exist
+     */
+    @Query("SELECT new io.github.mx0100.weblog.repository.projection.UserSummary(u.userId, u.username, u.nickname, u.profileimg) " +
+           "FROM User u WHERE u.userId IN :userIds")
+    List<UserSummary> findSummariesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Replace a password hash without rewriting the rest of the row
+     *
+     * @param userId user ID
+     * @param password new password hash
+     * @param updatedAt update time
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password, u.updatedAt = :updatedAt WHERE u.userId = :userId")
+    int updatePassword(@Param("userId") Long userId,
+                       @Param("password") String password,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package io.github.mx0100.weblog.repository.projection;
+
+/**
+ * Projection of a comment reduced to its post and comment IDs
+ * Used to assemble feed cards without loading comment content
+ * 
+ * @author mx0100
+ */
+public interface PostCommentId {
+    
+    Long getPostId();
+    
+    Long getCommentId();
+}
@@ -0,0 +1,42 @@
+package io.github.mx0100.weblog.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One full-text search match (a post or a comment) with its rank and headline
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    
+    /**
+     * SearchRepository.KIND_POST or SearchRepository.KIND_COMMENT
+     */
+    private final String kind;
+    
+    /**
+     * Post ID or comment ID, depending on the kind
+     */
+    private final Long id;
+    
+    /**
+     * Post the match belongs to (the post itself for post matches)
+     */
+    private final Long postId;
+    
+    private final Long userId;
+    
+    private final LocalDateTime createdAt;
+    
+    private final Float rank;
+    
+    /**
+     * Matching fragments of the plain text, terms wrapped in SearchRepository.MATCH_START/MATCH_END
+     */
+    private final String headline;
+}
@@ -0,0 +1,30 @@
+package io.github.mx0100.weblog.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Public author fields of a user, selected with a JPQL constructor expression
+ * Used to render authors without loading the password hash or hobby array
+ * 
+ * @author mx0100
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+    
+    private final Long userId;
+    
+    private final String username;
+    
+    private final String nickname;
+    
+    private final String profileimg;
+    
+    /**
+     * Name shown in notifications (nickname, falling back to username)
+     */
+    public String getDisplayName() {
+        return nickname != null ? nickname : username;
+    }
+}
@@ -40,13 +40,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractTokenFromRequest(request);
             
-            if (token != null && jwtUtils.validateToken(token)) {
-                Long userId = jwtUtils.getUserIdFromToken(token);
-                String username = jwtUtils.getUsernameFromToken(token);
+            if (token != null) {
+                // Single verification; repeat tokens are served from the verified-token cache
+                UserPrincipal userPrincipal = jwtUtils.getPrincipalFromToken(token);
                 
-                if (userId != null && username != null) {
+                if (userPrincipal != null) {
                     // Create authentication object
-                    UserPrincipal userPrincipal = new UserPrincipal(userId, username);
                     UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(userPrincipal, null, new ArrayList<>());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -54,7 +53,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     // Set authentication in security context
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                     
-                    log.debug("Set Authentication to security context for '{}', uri: {}", username, request.getRequestURI());
+                    if (log.isDebugEnabled()) {
+                        log.debug("Set Authentication to security context for '{}', uri: {}", userPrincipal.getUsername(), request.getRequestURI());
+                    }
                 } else {
                     log.warn("Cannot set authentication with invalid token");
                 }
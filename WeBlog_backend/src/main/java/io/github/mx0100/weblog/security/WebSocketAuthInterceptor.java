@@ -38,13 +38,14 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
             log.info("🔍 Extracted token from query: {}", token != null ? "TOKEN_FOUND" : "TOKEN_NULL");
             
             if (token != null) {
-                boolean isValid = jwtUtils.validateToken(token);
-                log.info("🔍 Token validation result: {}", isValid);
+                UserPrincipal principal = jwtUtils.getPrincipalFromToken(token);
+                log.info("🔍 Token validation result: {}", principal != null);
                 
-                if (isValid) {
+                if (principal != null) {
                     // 提取用户ID并存储在session attributes中
-                    Long userId = jwtUtils.getUserIdFromToken(token);
+                    Long userId = principal.getUserId();
                     attributes.put("userId", userId);
+                    putLastSeenId(query, attributes);
                     
                     log.info("✅ WebSocket connection authentication successful, user ID: {}", userId);
                     return true;
@@ -65,9 +66,11 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             
-            if (jwtUtils.validateToken(token)) {
-                Long userId = jwtUtils.getUserIdFromToken(token);
+            UserPrincipal principal = jwtUtils.getPrincipalFromToken(token);
+            if (principal != null) {
+                Long userId = principal.getUserId();
                 attributes.put("userId", userId);
+                putLastSeenId(request.getURI().getQuery(), attributes);
                 
                 log.info("✅ WebSocket connection authentication successful (Header), user ID: {}", userId);
                 return true;
@@ -88,12 +91,35 @@ public class WebSocketAuthInterceptor implements HandshakeInterceptor {
     }
     
     private String extractTokenFromQuery(String query) {
+        return extractQueryParam(query, "token");
+    }
+    
+    /**
+     * Store the client's replay cursor (lastSeenId query parameter) in session attributes
+     */
+    private void putLastSeenId(String query, Map<String, Object> attributes) {
+        String lastSeenId = extractQueryParam(query, "lastSeenId");
+        if (lastSeenId == null || lastSeenId.isEmpty()) {
+            return;
+        }
+        try {
+            attributes.put("lastSeenId", Long.parseLong(lastSeenId));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid lastSeenId: {}", lastSeenId);
+        }
+    }
+    
+    private String extractQueryParam(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        String prefix = name + "=";
         String[] params = query.split("&");
         for (String param : params) {
-            if (param.startsWith("token=")) {
-                return param.substring(6); // "token=".length()
+            if (param.startsWith(prefix)) {
+                return param.substring(prefix.length());
             }
         }
         return null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package io.github.mx0100.weblog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mx0100.weblog.config.AuthorSummaryConfig;
+import io.github.mx0100.weblog.event.UserProfileUpdatedEvent;
+import io.github.mx0100.weblog.repository.UserRepository;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves user IDs to author summaries for response rendering
+ * Lookups go through a per-request map, then a short-lived shared cache, and the remaining IDs
+ * are loaded with one query; profile changes evict the shared entry after commit
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Service
+@Timed(value = "weblog.service.duration", description = "Service method latency")
+public class AuthorSummaryService {
+    
+    private static final String REQUEST_ATTRIBUTE = AuthorSummaryService.class.getName() + ".summaries";
+    
+    private final UserRepository userRepository;
+    
+    private final Cache<Long, UserSummary> cache;
+    
+    public AuthorSummaryService(UserRepository userRepository, AuthorSummaryConfig authorSummaryConfig,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(authorSummaryConfig.getCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(authorSummaryConfig.getCacheTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "author.summaries");
+    }
+    
+    /**
+     * Get the summary of one user
+     * 
+     * @param userId user ID
+     * @return author summary or null if the user does not exist
+     */
+    public UserSummary getSummary(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getSummaries(Set.of(userId)).get(userId);
+    }
+    
+    /**
+     * Get summaries for a set of users
+     * 
+     * @param userIds user IDs
+     * @return map of user ID to summary (users that do not exist are absent)
+     */
+    public Map<Long, UserSummary> getSummaries(Collection<Long> userIds) {
+        Map<Long, UserSummary> result = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return result;
+        }
+        
+        Map<Long, UserSummary> requestScoped = requestScopedSummaries();
+        Set<Long> missing = new HashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            UserSummary summary = requestScoped != null ? requestScoped.get(userId) : null;
+            if (summary == null) {
+                summary = cache.getIfPresent(userId);
+            }
+            if (summary != null) {
+                result.put(userId, summary);
+            } else {
+                missing.add(userId);
+            }
+        }
+        
+        if (!missing.isEmpty()) {
+            for (UserSummary summary : userRepository.findSummariesByUserIdIn(missing)) {
+                cache.put(summary.getUserId(), summary);
+                result.put(summary.getUserId(), summary);
+            }
+            missing.removeAll(result.keySet());
+            if (!missing.isEmpty()) {
+                log.warn("Failed to load some authors, not found: {}", missing);
+            }
+        }
+        
+        if (requestScoped != null) {
+            requestScoped.putAll(result);
+        }
+        return result;
+    }
+    
+    /**
+     * Drop the cached summary once a profile change has committed
+     */
+    @TransactionalEventListener
+    public void onUserProfileUpdated(UserProfileUpdatedEvent event) {
+        cache.invalidate(event.getUserId());
+    }
+    
+    /**
+     * Summaries already resolved during the current HTTP request, or null outside a request
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserSummary> requestScopedSummaries() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Long, UserSummary> summaries = (Map<Long, UserSummary>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (summaries == null) {
+            summaries = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, summaries, RequestAttributes.SCOPE_REQUEST);
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk inserts for posts and comments (seeding, imports)
+ * IDs come from pooled sequences, so Hibernate sends one JDBC batch per flush instead of one
+ * round trip per row; the persistence context is cleared after each batch to keep memory flat.
+ * Domain events are not published: notifications are not sent and the feed read model and
+ * feed cache are not updated by these methods
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkWriteService {
+    
+    private final EntityManager entityManager;
+    private final PostRepository postRepository;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}")
+    private int batchSize;
+    
+    /**
+     * Insert posts in JDBC batches
+     * 
+     * @param posts new posts (user ID and content set)
+     * @return IDs of the inserted posts, in input order
+     */
+    @Transactional
+    public List<Long> insertPosts(List<Post> posts) {
+        List<Long> ids = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            entityManager.persist(post);
+            ids.add(post.getPostId());
+            if ((i + 1) % batchSize == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        
+        log.info("Bulk inserted {} posts", posts.size());
+        return ids;
+    }
+    
+    /**
+     * Insert comments in JDBC batches and bump each post's comment counter once
+     * 
+     * @param comments new comments (post ID, user ID and content set)
+     * @return IDs of the inserted comments, in input order
+     */
+    @Transactional
+    public List<Long> insertComments(List<Comment> comments) {
+        List<Long> ids = new ArrayList<>(comments.size());
+        Map<Long, Integer> addedPerPost = new HashMap<>();
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            entityManager.persist(comment);
+            ids.add(comment.getCommentId());
+            addedPerPost.merge(comment.getPostId(), 1, Integer::sum);
+            if ((i + 1) % batchSize == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        
+        addedPerPost.forEach(postRepository::incrementCommentCount);
+        
+        log.info("Bulk inserted {} comments on {} posts", comments.size(), addedPerPost.size());
+        return ids;
+    }
+    
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
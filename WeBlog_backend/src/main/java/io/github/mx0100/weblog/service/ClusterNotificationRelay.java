@@ -0,0 +1,185 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.config.ClusterConfig;
+import io.github.mx0100.weblog.config.ReadYourWritesTracker;
+import io.github.mx0100.weblog.dto.ClusterMessage;
+import io.github.mx0100.weblog.dto.NotificationMessage;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Delivers notifications to users connected to other nodes
+ * A notification is rendered and stored once, on the node that handled the write; its outbox ID
+ * is then sent only to the nodes the presence directory lists for the recipient, which load
+ * the stored payload and push it to their local sessions.
+ * It also keeps the per-node caches consistent: relationship changes, feed cache evictions and
+ * (with a replica) recent writers are broadcast and applied by every other node, and a node
+ * whose bus connection dropped discards its feed cache and re-verifies its partner map
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+public class ClusterNotificationRelay implements NotificationBus.Listener {
+    
+    private final NotificationBus bus;
+    private final PresenceDirectory presenceDirectory;
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationWebSocketHandler webSocketHandler;
+    private final PartnerCache partnerCache;
+    private final FeedCache feedCache;
+    // Null without a replica
+    private final ReadYourWritesTracker readYourWrites;
+    private final ClusterConfig clusterConfig;
+    private final ThreadPoolTaskExecutor executor;
+    
+    public ClusterNotificationRelay(NotificationBus bus,
+                                    PresenceDirectory presenceDirectory,
+                                    NotificationOutbox notificationOutbox,
+                                    NotificationWebSocketHandler webSocketHandler,
+                                    PartnerCache partnerCache,
+                                    FeedCache feedCache,
+                                    ObjectProvider<ReadYourWritesTracker> readYourWrites,
+                                    ClusterConfig clusterConfig,
+                                    @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor) {
+        this.bus = bus;
+        this.presenceDirectory = presenceDirectory;
+        this.notificationOutbox = notificationOutbox;
+        this.webSocketHandler = webSocketHandler;
+        this.partnerCache = partnerCache;
+        this.feedCache = feedCache;
+        this.readYourWrites = readYourWrites.getIfAvailable();
+        this.clusterConfig = clusterConfig;
+        this.executor = executor;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        feedCache.setEvictionListener(this::broadcastFeedEviction);
+        if (readYourWrites != null) {
+            readYourWrites.setWriteListener(this::broadcastWrite);
+        }
+        bus.start(presenceDirectory.getNodeId(), this);
+        presenceDirectory.join();
+    }
+    
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        presenceDirectory.leave();
+    }
+    
+    /**
+     * Send stored notifications to the other nodes holding sessions of their recipients
+     * 
+     * @param messages messages with outbox IDs
+     */
+    public void forward(List<NotificationMessage> messages) {
+        Map<String, List<Long>> idsByNode = new HashMap<>();
+        for (NotificationMessage message : messages) {
+            for (String node : presenceDirectory.remoteNodesOf(message.getToUserId())) {
+                idsByNode.computeIfAbsent(node, id -> new ArrayList<>()).add(message.getId());
+            }
+        }
+        
+        int chunk = clusterConfig.getMaxIdsPerMessage();
+        idsByNode.forEach((node, ids) -> {
+            for (int from = 0; from < ids.size(); from += chunk) {
+                ClusterMessage message = ClusterMessage.of(ClusterMessage.Type.DELIVER, presenceDirectory.getNodeId());
+                message.setNotificationIds(new ArrayList<>(ids.subList(from, Math.min(from + chunk, ids.size()))));
+                bus.send(node, message);
+            }
+            log.debug("🌐 Forwarded {} notifications to node {}", ids.size(), node);
+        });
+    }
+    
+    /**
+     * Publish a committed relationship change to the other nodes' partner maps
+     * Ordered before the feed cache's own listener, so other nodes see the new partner before
+     * the resulting evictions and never re-cache a page under the old couple
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        ClusterMessage message = ClusterMessage.of(ClusterMessage.Type.RELATIONSHIP, presenceDirectory.getNodeId());
+        message.setUserIds(List.of(event.getUserId(), event.getPartnerId()));
+        message.setActive(event.isActive());
+        bus.broadcast(message);
+    }
+    
+    private void broadcastFeedEviction(String coupleKey) {
+        ClusterMessage message = ClusterMessage.of(ClusterMessage.Type.FEED_EVICT, presenceDirectory.getNodeId());
+        message.setCoupleKeys(List.of(coupleKey));
+        bus.broadcast(message);
+    }
+    
+    private void broadcastWrite(long userId) {
+        ClusterMessage message = ClusterMessage.of(ClusterMessage.Type.WRITE, presenceDirectory.getNodeId());
+        message.setUserIds(List.of(userId));
+        bus.broadcast(message);
+    }
+    
+    @Override
+    public void onMessage(ClusterMessage message) {
+        switch (message.getType()) {
+            case ClusterMessage.Type.DELIVER -> {
+                // Keep the outbox query off the bus listener thread
+                try {
+                    executor.execute(() -> deliver(message));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Notification executor saturated, dropping {} notifications from node {} (kept for replay)",
+                            message.getNotificationIds().size(), message.getNode());
+                }
+            }
+            case ClusterMessage.Type.RELATIONSHIP -> partnerCache.onRelationshipChanged(new RelationshipChangedEvent(
+                    message.getUserIds().get(0), message.getUserIds().get(1), Boolean.TRUE.equals(message.getActive())));
+            case ClusterMessage.Type.FEED_EVICT -> message.getCoupleKeys().forEach(feedCache::applyEviction);
+            case ClusterMessage.Type.WRITE -> {
+                if (readYourWrites != null) {
+                    message.getUserIds().forEach(readYourWrites::recordWrite);
+                }
+            }
+            default -> presenceDirectory.apply(message);
+        }
+    }
+    
+    @Override
+    public void onReconnect() {
+        log.info("🌐 Notification bus reconnected, rebuilding presence and resynchronizing caches");
+        presenceDirectory.rejoin();
+        // Relationship changes and evictions sent while disconnected are lost
+        feedCache.evictAll();
+        try {
+            executor.execute(partnerCache::verify);
+        } catch (RejectedExecutionException e) {
+            log.warn("Notification executor saturated, partner map left to the scheduled verification");
+        }
+    }
+    
+    private void deliver(ClusterMessage message) {
+        try {
+            notificationOutbox.load(message.getNotificationIds(), (recipientId, id, payload) -> {
+                if (!webSocketHandler.sendPayloadToUser(recipientId, id, payload)) {
+                    presenceDirectory.correct(message.getNode(), recipientId);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to deliver notifications from node {}", message.getNode(), e);
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package io.github.mx0100.weblog.service;
 
 import io.github.mx0100.weblog.common.ResponseCode;
-import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.dto.request.CommentBatchRequest;
 import io.github.mx0100.weblog.dto.request.CommentCreateRequest;
 import io.github.mx0100.weblog.dto.response.CommentResponse;
 import io.github.mx0100.weblog.dto.response.PageResponse;
 import io.github.mx0100.weblog.entity.Comment;
 import io.github.mx0100.weblog.entity.Post;
-import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.event.CommentEvent;
 import io.github.mx0100.weblog.repository.CommentRepository;
-import io.github.mx0100.weblog.repository.UserRepository;
+import io.github.mx0100.weblog.repository.PostRepository;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
 import io.github.mx0100.weblog.utils.BeanUtils;
+import io.github.mx0100.weblog.utils.CursorUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,17 +35,24 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
+@Timed(value = "weblog.service.duration", description = "Service method latency")
 @RequiredArgsConstructor
 public class CommentService {
     
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final AuthorSummaryService authorSummaryService;
     private final PostService postService;
     private final UserRelationshipService userRelationshipService;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     private static final int DEFAULT_PAGE_SIZE = 20;
     
+    /**
+     * Largest keyset slice served; larger requested sizes are clamped
+     */
+    private static final int MAX_SLICE_SIZE = 100;
+    
     /**
      * Create new comment with rich text support
      * 
@@ -75,37 +86,27 @@ public class CommentService {
         }
         
         // Verify author exists
-        User author = findUserById(userId);
+        UserSummary author = findAuthor(userId);
         
         // Create new comment entity
         Comment comment = new Comment();
         comment.setPostId(postId);
         comment.setUserId(userId);
         
-        // Set content based on request type (rich text or legacy plain text)
-        RichContent effectiveContent = request.getEffectiveContent();
-        if (effectiveContent != null) {
-            comment.setRichContent(new RichContent(
-                effectiveContent.getType(),
-                effectiveContent.getVersion(),
-                effectiveContent.getDelta(),
-                effectiveContent.getPlainText()
-            ));
-            log.debug("Created comment with {} content", effectiveContent.getType());
-        } else {
-            // This should not happen due to validation, but provide fallback
-            comment.setPlainTextContent("");
-            log.warn("Created comment with empty content for user {}", userId);
-        }
+        // Set content with server-derived plain text, preview and word count (extracted once during validation)
+        comment.setExtractedContent(request.getExtractedContent());
+        log.debug("Created comment with {} content", comment.getRichContent().getType());
         
         // Save comment to database
         Comment savedComment = commentRepository.save(comment);
+        postRepository.incrementCommentCount(postId, 1);
         
         log.info("Comment created successfully with ID: {} (content type: {})", 
                 savedComment.getCommentId(), savedComment.hasRichTextContent() ? "rich_text" : "plain_text");
         
-        // Send notification to post author about new comment
-        notificationService.sendNewCommentNotification(savedComment, post);
+        // Notify post author about new comment after commit
+        eventPublisher.publishEvent(new CommentEvent(CommentEvent.Kind.CREATED, savedComment.getCommentId(),
+                userId, postId, post.getUserId(), savedComment.getPreview()));
         
         return BeanUtils.toCommentResponse(savedComment, author);
     }
@@ -119,6 +120,7 @@ public class CommentService {
      * @param size page size
      * @return page response of comments
      */
+    @Transactional(readOnly = true)
     public PageResponse<CommentResponse> getCommentsByPostId(Long postId, Long currentUserId, 
                                                            Integer page, Integer size) {
         if (postId == null || currentUserId == null) {
@@ -160,7 +162,7 @@ public class CommentService {
                 .collect(Collectors.toList());
         
         // Batch load users to avoid N+1 problem
-        Map<Long, User> userMap = loadUsersMap(userIds);
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
         
         // Convert to response DTOs
         Page<CommentResponse> responsePage = commentPage.map(comment -> 
@@ -169,6 +171,146 @@ public class CommentService {
         return PageResponse.of(responsePage);
     }
     
+    /**
+     * Get comments by post ID with keyset pagination
+     * Does not run a count query and stays fast for long threads
+     * 
+     * @param postId post ID
+     * @param currentUserId current user ID (for access control)
+     * @param cursor cursor returned by the previous slice (null or blank for the first slice)
+     * @param size slice size (default: 20, at most 100)
+     * @return slice response of comments with the next cursor
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CommentResponse> getCommentsByPostIdByCursor(Long postId, Long currentUserId,
+                                                                   String cursor, Integer size) {
+        if (postId == null || currentUserId == null) {
+            throw new IllegalArgumentException("Post ID and current user ID cannot be null");
+        }
+        
+        // Verify post exists and user has access to it
+        Post post = postService.findPostById(postId);
+        
+        // Check if user can access this post and its comments
+        if (!userRelationshipService.canUserAccessContent(currentUserId, post.getUserId())) {
+            log.warn("Access denied: user {} trying to view comments of post {} (owner: {})", 
+                    currentUserId, postId, post.getUserId());
+            throw new RuntimeException(ResponseCode.PERMISSION_DENIED.getMessage());
+        }
+        
+        // Set default values
+        if (size == null || size <= 0) {
+            size = DEFAULT_PAGE_SIZE;
+        }
+        size = Math.min(size, MAX_SLICE_SIZE);
+        
+        CursorUtils.Cursor after = CursorUtils.decode(cursor);
+        
+        log.info("Getting comments for post {} by user {} - cursor: {}, size: {}", 
+                postId, currentUserId, cursor, size);
+        
+        // Fetch one extra row to detect whether another slice follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> comments = after == null
+                ? commentRepository.findSliceByPostId(postId, limit)
+                : commentRepository.findSliceByPostIdAfter(postId, after.getCreatedAt(), after.getId(), limit);
+        
+        boolean hasNext = comments.size() > size;
+        if (hasNext) {
+            comments = comments.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Comment last = comments.get(comments.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getCommentId());
+        }
+        
+        // Batch load users to avoid N+1 problem
+        List<Long> userIds = comments.stream()
+                .map(Comment::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
+        
+        List<CommentResponse> content = comments.stream()
+                .map(comment -> BeanUtils.toCommentResponse(comment, userMap.get(comment.getUserId())))
+                .collect(Collectors.toList());
+        
+        return PageResponse.ofSlice(content, size, after == null, nextCursor);
+    }
+    
+    /**
+     * Get comments older than a cursor with keyset pagination (newest first within the walk)
+     * Continues a post's comment preview; each slice is returned oldest first for display
+     * 
+     * @param postId post ID
+     * @param currentUserId current user ID (for access control)
+     * @param before cursor of the oldest comment already shown (blank for the newest comments)
+     * @param size slice size (default: 20, at most 100)
+     * @return slice response of comments with the cursor for the next older slice
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<CommentResponse> getCommentsByPostIdBefore(Long postId, Long currentUserId,
+                                                                 String before, Integer size) {
+        if (postId == null || currentUserId == null) {
+            throw new IllegalArgumentException("Post ID and current user ID cannot be null");
+        }
+        
+        // Verify post exists and user has access to it
+        Post post = postService.findPostById(postId);
+        
+        // Check if user can access this post and its comments
+        if (!userRelationshipService.canUserAccessContent(currentUserId, post.getUserId())) {
+            log.warn("Access denied: user {} trying to view comments of post {} (owner: {})", 
+                    currentUserId, postId, post.getUserId());
+            throw new RuntimeException(ResponseCode.PERMISSION_DENIED.getMessage());
+        }
+        
+        // Set default values
+        if (size == null || size <= 0) {
+            size = DEFAULT_PAGE_SIZE;
+        }
+        size = Math.min(size, MAX_SLICE_SIZE);
+        
+        CursorUtils.Cursor cursor = CursorUtils.decode(before);
+        
+        log.info("Getting comments for post {} by user {} - before: {}, size: {}", 
+                postId, currentUserId, before, size);
+        
+        // Fetch one extra row to detect whether older comments remain
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Comment> comments = cursor == null
+                ? commentRepository.findLatestSliceByPostId(postId, limit)
+                : commentRepository.findSliceByPostIdBefore(postId, cursor.getCreatedAt(), cursor.getId(), limit);
+        
+        boolean hasNext = comments.size() > size;
+        if (hasNext) {
+            comments = comments.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Comment oldest = comments.get(comments.size() - 1);
+            nextCursor = CursorUtils.encode(oldest.getCreatedAt(), oldest.getCommentId());
+        }
+        
+        // Batch load users to avoid N+1 problem
+        List<Long> userIds = comments.stream()
+                .map(Comment::getUserId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
+        
+        List<CommentResponse> content = new ArrayList<>(comments.size());
+        for (int i = comments.size() - 1; i >= 0; i--) {
+            Comment comment = comments.get(i);
+            content.add(BeanUtils.toCommentResponse(comment, userMap.get(comment.getUserId())));
+        }
+        
+        return PageResponse.ofSlice(content, size, cursor == null, nextCursor);
+    }
+    
     /**
      * Get comments by post ID (non-paginated)
      * 
@@ -176,6 +318,7 @@ public class CommentService {
      * @param currentUserId current user ID (for access control)
      * @return list of comment responses
      */
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByPostId(Long postId, Long currentUserId) {
         if (postId == null || currentUserId == null) {
             throw new IllegalArgumentException("Post ID and current user ID cannot be null");
@@ -207,7 +350,7 @@ public class CommentService {
                 .collect(Collectors.toList());
         
         // Batch load users to avoid N+1 problem
-        Map<Long, User> userMap = loadUsersMap(userIds);
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
 
         // Convert to response DTOs
         return comments.stream()
@@ -217,62 +360,56 @@ public class CommentService {
     
     /**
      * Get comments by comment IDs (batch operation)
+     * Comments and access are resolved together: one joined query keeps only comments on posts
+     * written by the viewer or their partner (partner comes from memory); the request size is
+     * bounded by {@link CommentBatchRequest}
      * 
      * @param commentIds list of comment IDs
      * @param currentUserId current user ID (for access control)
-     * @return list of comment responses
+     * @return list of accessible comment responses in request order
      */
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByIds(List<Long> commentIds, Long currentUserId) {
         if (commentIds == null || commentIds.isEmpty() || currentUserId == null) {
             return List.of();
         }
         
-        log.info("Getting comments by IDs for user {}: {}", currentUserId, commentIds);
+        log.info("Getting {} comments by IDs for user {}", commentIds.size(), currentUserId);
         
-        // Get comments by IDs
-        List<Comment> comments = commentRepository.findByCommentIdIn(commentIds);
-        
-        if (comments.isEmpty()) {
-            return List.of();
-        }
+        // Viewer can read posts of themselves and their partner
+        List<Long> postOwnerIds = new ArrayList<>(2);
+        postOwnerIds.add(currentUserId);
+        userRelationshipService.getPartnerUserId(currentUserId).ifPresent(postOwnerIds::add);
         
-        // Filter comments user can access (only comments on posts they can access)
-        List<Comment> accessibleComments = comments.stream()
-                .filter(comment -> {
-                    try {
-                        Post post = postService.findPostById(comment.getPostId());
-                        return userRelationshipService.canUserAccessContent(currentUserId, post.getUserId());
-                    } catch (Exception e) {
-                        log.warn("Failed to check access for comment {}", comment.getCommentId());
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
+        // De-duplicate while keeping request order
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(commentIds));
+        List<Comment> accessibleComments = commentRepository.findAccessibleByCommentIdIn(distinctIds, postOwnerIds);
         
         if (accessibleComments.isEmpty()) {
             return List.of();
         }
         
-        // Get all unique user IDs for author loading
-        List<Long> userIds = accessibleComments.stream()
-                .map(Comment::getUserId)
-                .distinct()
-                .collect(Collectors.toList());
-        
-        // Batch load users to avoid N+1 problem
-        Map<Long, User> userMap = loadUsersMap(userIds);
+        // Batch load authors to avoid N+1 problem
+        Set<Long> userIds = new HashSet<>();
+        for (Comment comment : accessibleComments) {
+            userIds.add(comment.getUserId());
+        }
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
         
         // Convert to response DTOs and maintain order based on input commentIds
-        Map<Long, CommentResponse> commentMap = accessibleComments.stream()
-                .collect(Collectors.toMap(
-                        Comment::getCommentId,
-                        comment -> BeanUtils.toCommentResponse(comment, userMap.get(comment.getUserId()))
-                ));
-        
-        return commentIds.stream()
-                .map(commentMap::get)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        Map<Long, CommentResponse> commentMap = new HashMap<>(accessibleComments.size() * 2);
+        for (Comment comment : accessibleComments) {
+            commentMap.put(comment.getCommentId(), BeanUtils.toCommentResponse(comment, userMap.get(comment.getUserId())));
+        }
+        
+        List<CommentResponse> responses = new ArrayList<>(commentMap.size());
+        for (Long commentId : distinctIds) {
+            CommentResponse response = commentMap.get(commentId);
+            if (response != null) {
+                responses.add(response);
+            }
+        }
+        return responses;
     }
     
     /**
@@ -309,11 +446,13 @@ public class CommentService {
         // Get post for notification before deleting comment
         Post post = postService.findPostById(comment.getPostId());
         
-        // Send notification to post author about comment deletion
-        notificationService.sendCommentDeletedNotification(comment, post);
+        // Notify post author about comment deletion after commit
+        eventPublisher.publishEvent(new CommentEvent(CommentEvent.Kind.DELETED, commentId,
+                comment.getUserId(), post.getPostId(), post.getUserId(), null));
         
         // Delete comment
         commentRepository.delete(comment);
+        postRepository.incrementCommentCount(comment.getPostId(), -1);
         
         log.info("Comment deleted successfully: {}", commentId);
     }
@@ -325,6 +464,7 @@ public class CommentService {
      * @return comment entity
      * @throws RuntimeException if comment not found
      */
+    @Transactional(readOnly = true)
     public Comment findCommentById(Long commentId) {
         if (commentId == null) {
             throw new IllegalArgumentException("Comment ID cannot be null");
@@ -339,41 +479,22 @@ public class CommentService {
     }
     
     /**
-     * Find user by ID (internal method)
+     * Find author summary by user ID (internal method)
      * 
      * @param userId user ID
-     * @return user entity
+     * @return author summary
      * @throws RuntimeException if user not found
      */
-    private User findUserById(Long userId) {
+    private UserSummary findAuthor(Long userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
         
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        UserSummary author = authorSummaryService.getSummary(userId);
+        if (author == null) {
             throw new RuntimeException(ResponseCode.USER_NOT_FOUND.getMessage());
         }
         
-        return userOpt.get();
-    }
-    
-    /**
-     * Load users map for batch loading
-     * 
-     * @param userIds list of user IDs
-     * @return map of user ID to User entity
-     */
-    private Map<Long, User> loadUsersMap(List<Long> userIds) {
-        Map<Long, User> userMap = new HashMap<>();
-        for (Long userId : userIds) {
-            try {
-                User user = findUserById(userId);
-                userMap.put(userId, user);
-            } catch (Exception e) {
-                log.warn("Failed to load comment author with ID: {}", userId);
-            }
-        }
-        return userMap;
+        return author;
     }
 } 
\ No newline at end of file
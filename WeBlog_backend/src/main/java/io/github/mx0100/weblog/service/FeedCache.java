@@ -0,0 +1,249 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.mx0100.weblog.config.FeedCacheConfig;
+import io.github.mx0100.weblog.config.ReadYourWritesTracker;
+import io.github.mx0100.weblog.dto.response.PageResponse;
+import io.github.mx0100.weblog.dto.response.PostResponse;
+import io.github.mx0100.weblog.event.CommentEvent;
+import io.github.mx0100.weblog.event.PostEvent;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
+import io.github.mx0100.weblog.event.UserProfileUpdatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Two-level cache of serialized feed pages, keyed by couple and page
+ * Both partners see the same timeline, so a page rendered for one is served to the other.
+ * Level one is an in-process Caffeine cache, level two a pluggable FeedCacheStore;
+ * every cached page of a couple is dropped after a post, comment, pairing or profile change commits
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+public class FeedCache {
+    
+    private static final TypeReference<PageResponse<PostResponse>> PAGE_TYPE = new TypeReference<>() {};
+    
+    private final FeedCacheConfig feedCacheConfig;
+    private final FeedCacheStore sharedStore;
+    private final PartnerCache partnerCache;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    
+    /**
+     * coupleKey -> (pageKey -> serialized page); eviction replaces the whole inner map
+     */
+    private final Cache<String, Map<String, byte[]>> local;
+    
+    private final Counter sharedHits;
+    private final Counter misses;
+    
+    // Receives every couple key evicted on this node, so other nodes can drop their level one too
+    private volatile Consumer<String> evictionListener = coupleKey -> {};
+    
+    public FeedCache(FeedCacheConfig feedCacheConfig, FeedCacheStore sharedStore, PartnerCache partnerCache,
+                     ObjectProvider<ReadYourWritesTracker> readYourWrites, ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry) {
+        this.feedCacheConfig = feedCacheConfig;
+        this.sharedStore = sharedStore;
+        this.partnerCache = partnerCache;
+        this.reader = objectMapper.readerFor(PAGE_TYPE);
+        this.writer = objectMapper.writerFor(PAGE_TYPE);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(feedCacheConfig.getLocalMaxCouples())
+                .expireAfterWrite(Duration.ofSeconds(feedCacheConfig.getLocalTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "feed.pages.local");
+        this.sharedHits = Counter.builder("weblog.feed.cache.requests")
+                .description("Feed pages served from the shared tier")
+                .tag("result", "shared-hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("weblog.feed.cache.requests")
+                .description("Feed pages rendered from the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        // Pages are shared per couple, so after one partner writes, a read by the other must not
+        // re-cache the timeline from a lagging replica
+        readYourWrites.ifAvailable(tracker ->
+                tracker.setPartnerLookup(userId -> partnerCache.getPartnerId(userId).orElse(null)));
+    }
+    
+    /**
+     * Page key of an offset page, or null if the page is not cached
+     * 
+     * @param page page number (0-based)
+     * @param size page size
+     * @param commentPreview embedded comments per post (0 for comment IDs)
+     * @return page key or null
+     */
+    public String offsetKey(int page, int size, int commentPreview) {
+        return feedCacheConfig.isEnabled() && page < feedCacheConfig.getMaxPages()
+                ? "p" + page + ":" + size + ":" + commentPreview : null;
+    }
+    
+    /**
+     * Page key of the first keyset slice, or null if caching is disabled
+     * 
+     * @param size slice size
+     * @param commentPreview embedded comments per post (0 for comment IDs)
+     * @return page key or null
+     */
+    public String firstSliceKey(int size, int commentPreview) {
+        return feedCacheConfig.isEnabled() ? "c:" + size + ":" + commentPreview : null;
+    }
+    
+    /**
+     * Get a feed page from cache or render it with the loader
+     * 
+     * @param viewerId current user ID
+     * @param pageKey page key (null bypasses the cache)
+     * @param loader renders the page from the database
+     * @return feed page
+     */
+    public PageResponse<PostResponse> get(Long viewerId, String pageKey, Supplier<PageResponse<PostResponse>> loader) {
+        if (pageKey == null) {
+            return loader.get();
+        }
+        
+        String coupleKey = coupleKey(viewerId, partnerCache.getPartnerId(viewerId).orElse(null));
+        Map<String, byte[]> pages = local.get(coupleKey, key -> new ConcurrentHashMap<>());
+        
+        byte[] cached = pages.get(pageKey);
+        if (cached == null) {
+            cached = sharedStore.get(coupleKey, pageKey);
+            if (cached != null) {
+                sharedHits.increment();
+                pages.put(pageKey, cached);
+            }
+        }
+        if (cached != null) {
+            PageResponse<PostResponse> page = deserialize(cached);
+            if (page != null) {
+                return page;
+            }
+        }
+        
+        misses.increment();
+        PageResponse<PostResponse> page = loader.get();
+        try {
+            byte[] serialized = writer.writeValueAsBytes(page);
+            pages.put(pageKey, serialized);
+            // Skip the shared tier if the couple was invalidated while the page was rendering
+            if (local.getIfPresent(coupleKey) == pages) {
+                sharedStore.put(coupleKey, pageKey, serialized);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to cache feed page {} for {}: {}", pageKey, coupleKey, e.getMessage());
+        }
+        return page;
+    }
+    
+    /**
+     * Drop every cached page of a user's current timeline
+     * 
+     * @param userId user ID
+     */
+    public void evictTimelineOf(Long userId) {
+        evict(coupleKey(userId, partnerCache.getPartnerId(userId).orElse(null)));
+    }
+    
+    @TransactionalEventListener
+    public void onPost(PostEvent event) {
+        evictTimelineOf(event.getAuthorId());
+    }
+    
+    @TransactionalEventListener
+    public void onComment(CommentEvent event) {
+        evictTimelineOf(event.getPostAuthorId());
+    }
+    
+    @TransactionalEventListener
+    public void onUserProfileUpdated(UserProfileUpdatedEvent event) {
+        evictTimelineOf(event.getUserId());
+    }
+    
+    /**
+     * Pairing and unpairing change which timeline both users see;
+     * keys are derived from the event because the partner cache may not be updated yet
+     */
+    @TransactionalEventListener
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        evict(coupleKey(event.getUserId(), null));
+        evict(coupleKey(event.getPartnerId(), null));
+        evict(coupleKey(event.getUserId(), event.getPartnerId()));
+    }
+    
+    /**
+     * Set the callback invoked with each couple key evicted on this node
+     * 
+     * @param evictionListener callback
+     */
+    public void setEvictionListener(Consumer<String> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+    
+    /**
+     * Apply an eviction made on another node without announcing it again
+     * Both tiers are cleared: the default shared tier is per node, and with a truly shared
+     * store the second delete is harmless
+     * 
+     * @param coupleKey couple key
+     */
+    public void applyEviction(String coupleKey) {
+        local.invalidate(coupleKey);
+        sharedStore.evict(coupleKey);
+    }
+    
+    /**
+     * Drop every cached page of both tiers (evictions from other nodes may have been missed)
+     */
+    public void evictAll() {
+        local.invalidateAll();
+        sharedStore.evictAll();
+    }
+    
+    private void evict(String coupleKey) {
+        local.invalidate(coupleKey);
+        sharedStore.evict(coupleKey);
+        evictionListener.accept(coupleKey);
+    }
+    
+    private PageResponse<PostResponse> deserialize(byte[] cached) {
+        try {
+            return reader.readValue(cached);
+        } catch (IOException e) {
+            log.warn("Discarding unreadable cached feed page: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Stable key for a couple (order independent) or a single user
+     */
+    private static String coupleKey(Long userId, Long partnerId) {
+        if (partnerId == null) {
+            return "u:" + userId;
+        }
+        return "c:" + Math.min(userId, partnerId) + ":" + Math.max(userId, partnerId);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.mx0100.weblog.service;
+
+/**
+ * Shared (second level) tier of the feed response cache
+ * Pages are grouped per couple so that a single eviction drops every cached page of a timeline;
+ * a Redis implementation maps naturally onto one hash per couple (HGET / HSET + EXPIRE / DEL)
+ * 
+ * @author mx0100
+ */
+public interface FeedCacheStore {
+    
+    /**
+     * Get a serialized page
+     * 
+     * @param coupleKey couple (or single user) key
+     * @param pageKey page key within the couple
+     * @return serialized page or null if absent
+     */
+    byte[] get(String coupleKey, String pageKey);
+    
+    /**
+     * Store a serialized page
+     * 
+     * @param coupleKey couple (or single user) key
+     * @param pageKey page key within the couple
+     * @param value serialized page
+     */
+    void put(String coupleKey, String pageKey, byte[] value);
+    
+    /**
+     * Drop every page of a couple
+     * 
+     * @param coupleKey couple (or single user) key
+     */
+    void evict(String coupleKey);
+    
+    /**
+     * Drop every cached page (evictions may have been missed)
+     */
+    void evictAll();
+}
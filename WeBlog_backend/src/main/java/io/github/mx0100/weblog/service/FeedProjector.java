@@ -0,0 +1,194 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.config.FeedReadModelConfig;
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.event.CommentEvent;
+import io.github.mx0100.weblog.event.PostEvent;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
+import io.github.mx0100.weblog.event.UserProfileUpdatedEvent;
+import io.github.mx0100.weblog.repository.PostRepository;
+import io.github.mx0100.weblog.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the feed_entries read model (fan-out on write)
+ * Listeners run synchronously inside the publishing transaction, so a timeline never
+ * shows a post that was rolled back or misses one that was committed
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FeedProjector {
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO feed_entries (owner_id, post_id, author_id, created_at, author_username, author_nickname, comment_count, preview) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (owner_id, post_id) DO NOTHING";
+    
+    private static final String UPDATE_PREVIEW_SQL =
+            "UPDATE feed_entries SET preview = ? WHERE post_id = ?";
+    
+    private static final String DELETE_POST_SQL =
+            "DELETE FROM feed_entries WHERE post_id = ?";
+    
+    private static final String ADJUST_COMMENT_COUNT_SQL =
+            "UPDATE feed_entries SET comment_count = comment_count + ? WHERE post_id = ?";
+    
+    private static final String UPDATE_AUTHOR_SQL =
+            "UPDATE feed_entries SET author_nickname = ? WHERE author_id = ?";
+    
+    private static final String DELETE_AUTHOR_FROM_OWNER_SQL =
+            "DELETE FROM feed_entries WHERE owner_id = ? AND author_id = ?";
+    
+    /**
+     * Copies every post of one author into one owner's timeline
+     */
+    private static final String COPY_AUTHOR_TO_OWNER_SQL =
+            "INSERT INTO feed_entries (owner_id, post_id, author_id, created_at, author_username, author_nickname, comment_count, preview) " +
+            "SELECT ?, p.post_id, p.user_id, p.created_at, u.username, u.nickname, p.comment_count, " +
+            "       LEFT(COALESCE(p.preview, p.content_rich ->> 'plainText', ''), ?) " +
+            "FROM posts p JOIN users u ON u.user_id = p.user_id WHERE p.user_id = ? " +
+            "ON CONFLICT (owner_id, post_id) DO NOTHING";
+    
+    /**
+     * Rebuilds timelines from posts: each user sees their own posts plus those of an active partner
+     */
+    private static final String REBUILD_SQL =
+            "INSERT INTO feed_entries (owner_id, post_id, author_id, created_at, author_username, author_nickname, comment_count, preview) " +
+            "SELECT v.owner_id, p.post_id, p.user_id, p.created_at, u.username, u.nickname, p.comment_count, " +
+            "       LEFT(COALESCE(p.preview, p.content_rich ->> 'plainText', ''), ?) " +
+            "FROM (SELECT user_id AS owner_id, user_id AS author_id FROM users " +
+            "      UNION ALL SELECT user1_id, user2_id FROM user_relationships WHERE status = 'ACTIVE' " +
+            "      UNION ALL SELECT user2_id, user1_id FROM user_relationships WHERE status = 'ACTIVE') v " +
+            "JOIN posts p ON p.user_id = v.author_id " +
+            "JOIN users u ON u.user_id = p.user_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final PartnerCache partnerCache;
+    private final FeedReadModelConfig feedReadModelConfig;
+    
+    /**
+     * Fan a post change out to the author's and partner's timelines
+     */
+    @EventListener
+    public void onPost(PostEvent event) {
+        if (!feedReadModelConfig.isEnabled()) {
+            return;
+        }
+        
+        switch (event.getKind()) {
+            case CREATED -> {
+                Post post = postRepository.findById(event.getPostId()).orElse(null);
+                User author = userRepository.findById(event.getAuthorId()).orElse(null);
+                if (post == null || author == null) {
+                    log.warn("Skipping feed projection for post {}: post or author not found", event.getPostId());
+                    return;
+                }
+                
+                List<Long> owners = new ArrayList<>(2);
+                owners.add(author.getUserId());
+                partnerCache.getPartnerId(author.getUserId()).ifPresent(owners::add);
+                
+                Timestamp createdAt = Timestamp.valueOf(post.getCreatedAt());
+                String preview = preview(post.getPreview());
+                for (Long ownerId : owners) {
+                    jdbcTemplate.update(INSERT_SQL, ownerId, post.getPostId(), author.getUserId(), createdAt,
+                            author.getUsername(), author.getNickname(), post.getCommentCount(), preview);
+                }
+            }
+            case UPDATED -> jdbcTemplate.update(UPDATE_PREVIEW_SQL, preview(event.getPreview()), event.getPostId());
+            case DELETED -> jdbcTemplate.update(DELETE_POST_SQL, event.getPostId());
+        }
+    }
+    
+    /**
+     * Keep the comment counter on feed entries in step with posts.comment_count
+     */
+    @EventListener
+    public void onComment(CommentEvent event) {
+        if (!feedReadModelConfig.isEnabled()) {
+            return;
+        }
+        
+        int delta = event.getKind() == CommentEvent.Kind.CREATED ? 1 : -1;
+        jdbcTemplate.update(ADJUST_COMMENT_COUNT_SQL, delta, event.getPostId());
+    }
+    
+    /**
+     * Merge or split the two timelines when a couple pairs or unpairs
+     */
+    @EventListener
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        if (!feedReadModelConfig.isEnabled()) {
+            return;
+        }
+        
+        Long userId = event.getUserId();
+        Long partnerId = event.getPartnerId();
+        if (event.isActive()) {
+            int copied = jdbcTemplate.update(COPY_AUTHOR_TO_OWNER_SQL, userId, feedReadModelConfig.getPreviewLength(), partnerId)
+                    + jdbcTemplate.update(COPY_AUTHOR_TO_OWNER_SQL, partnerId, feedReadModelConfig.getPreviewLength(), userId);
+            log.info("Merged timelines of users {} and {} ({} entries)", userId, partnerId, copied);
+        } else {
+            int removed = jdbcTemplate.update(DELETE_AUTHOR_FROM_OWNER_SQL, userId, partnerId)
+                    + jdbcTemplate.update(DELETE_AUTHOR_FROM_OWNER_SQL, partnerId, userId);
+            log.info("Split timelines of users {} and {} ({} entries)", userId, partnerId, removed);
+        }
+    }
+    
+    /**
+     * Refresh the author snapshot after a profile change
+     */
+    @EventListener
+    public void onUserProfileUpdated(UserProfileUpdatedEvent event) {
+        if (!feedReadModelConfig.isEnabled()) {
+            return;
+        }
+        
+        jdbcTemplate.update(UPDATE_AUTHOR_SQL, event.getNickname(), event.getUserId());
+    }
+    
+    /**
+     * Rebuild timelines from the posts and relationships tables
+     * 
+     * @param ownerId timeline owner to rebuild, or null to rebuild every timeline
+     * @return number of entries written
+     */
+    @Transactional
+    public int rebuild(Long ownerId) {
+        int written;
+        if (ownerId == null) {
+            jdbcTemplate.update("DELETE FROM feed_entries");
+            written = jdbcTemplate.update(REBUILD_SQL, feedReadModelConfig.getPreviewLength());
+        } else {
+            jdbcTemplate.update("DELETE FROM feed_entries WHERE owner_id = ?", ownerId);
+            written = jdbcTemplate.update(REBUILD_SQL + " WHERE v.owner_id = ?", feedReadModelConfig.getPreviewLength(), ownerId);
+        }
+        log.info("Rebuilt feed entries for {}: {} entries", ownerId != null ? "user " + ownerId : "all users", written);
+        return written;
+    }
+    
+    /**
+     * Truncate the stored post preview to the configured preview length
+     */
+    private String preview(String text) {
+        if (text == null) {
+            return "";
+        }
+        int max = feedReadModelConfig.getPreviewLength();
+        return text.length() > max ? text.substring(0, max) : text;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.mx0100.weblog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local stand-in for the shared feed cache tier
+ * Used for local development and single-instance deployments; with several nodes each one
+ * holds its own copy, which the cluster relay keeps consistent by replaying evictions
+ * 
+ * @author mx0100
+ */
+public class InMemoryFeedCacheStore implements FeedCacheStore {
+    
+    private final Cache<String, Map<String, byte[]>> couples;
+    
+    public InMemoryFeedCacheStore(long maxCouples, Duration ttl) {
+        this.couples = Caffeine.newBuilder()
+                .maximumSize(maxCouples)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    @Override
+    public byte[] get(String coupleKey, String pageKey) {
+        Map<String, byte[]> pages = couples.getIfPresent(coupleKey);
+        return pages != null ? pages.get(pageKey) : null;
+    }
+    
+    @Override
+    public void put(String coupleKey, String pageKey, byte[] value) {
+        couples.get(coupleKey, key -> new ConcurrentHashMap<>()).put(pageKey, value);
+    }
+    
+    @Override
+    public void evict(String coupleKey) {
+        couples.invalidate(coupleKey);
+    }
+    
+    @Override
+    public void evictAll() {
+        couples.invalidateAll();
+    }
+}
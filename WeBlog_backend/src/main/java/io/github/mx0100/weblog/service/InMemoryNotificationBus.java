@@ -0,0 +1,58 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.dto.ClusterMessage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local notification bus
+ * Used for single-instance deployments (there is no other node to reach) and for tests,
+ * where several buses sharing one {@link Hub} behave like nodes of a cluster.
+ * Messages are handed to the receiving listener on the publishing thread
+ * 
+ * @author mx0100
+ */
+public class InMemoryNotificationBus implements NotificationBus {
+    
+    private final Hub hub;
+    private String nodeId;
+    
+    public InMemoryNotificationBus() {
+        this(new Hub());
+    }
+    
+    public InMemoryNotificationBus(Hub hub) {
+        this.hub = hub;
+    }
+    
+    @Override
+    public void start(String nodeId, Listener listener) {
+        this.nodeId = nodeId;
+        hub.listeners.put(nodeId, listener);
+    }
+    
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        Listener listener = hub.listeners.get(nodeId);
+        if (listener != null) {
+            listener.onMessage(message);
+        }
+    }
+    
+    @Override
+    public void broadcast(ClusterMessage message) {
+        hub.listeners.forEach((id, listener) -> {
+            if (!id.equals(nodeId)) {
+                listener.onMessage(message);
+            }
+        });
+    }
+    
+    /**
+     * Nodes reachable through in-memory buses
+     */
+    public static class Hub {
+        private final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.dto.ClusterMessage;
+
+/**
+ * Cross-node channel for notification fan-out and presence
+ * Every node has its own address plus a shared broadcast address. Messages from one node are
+ * delivered in the order they were published; delivery is at most once, so receivers must
+ * tolerate loss (clients catch up from the outbox on reconnect)
+ * 
+ * @author mx0100
+ */
+public interface NotificationBus {
+    
+    /**
+     * Start receiving messages addressed to this node or broadcast
+     * 
+     * @param nodeId ID of this node
+     * @param listener receiver of incoming messages
+     */
+    void start(String nodeId, Listener listener);
+    
+    /**
+     * Publish a message to one node
+     * 
+     * @param nodeId target node ID
+     * @param message message
+     */
+    void send(String nodeId, ClusterMessage message);
+    
+    /**
+     * Publish a message to every other node
+     * 
+     * @param message message
+     */
+    void broadcast(ClusterMessage message);
+    
+    /**
+     * Receiver of bus messages
+     */
+    interface Listener {
+        
+        void onMessage(ClusterMessage message);
+        
+        /**
+         * Messages may have been missed (listener connection re-established)
+         */
+        void onReconnect();
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.config.NotificationConfig;
+import io.github.mx0100.weblog.dto.NotificationMessage;
+import io.github.mx0100.weblog.dto.PendingNotification;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-recipient notification mailboxes drained on the notification executor
+ * One drain runs per recipient at a time, so each user receives notifications in dispatch order;
+ * all notifications waiting in a mailbox are rendered together with a single user lookup
+ * and written back to their outbox rows with one batched update before they are pushed to local
+ * sessions and relayed to the other nodes holding the recipients' sessions.
+ * Every notification is already stored as pending when it is dispatched, so one that is dropped
+ * here (full mailbox, failed batch) stays in the outbox and is dispatched again by the redelivery job;
+ * a mailbox whose drain the saturated executor rejected is retried on a timer
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher implements AutoCloseable {
+    
+    private final AuthorSummaryService authorSummaryService;
+    private final NotificationWebSocketHandler webSocketHandler;
+    private final NotificationOutbox notificationOutbox;
+    private final ClusterNotificationRelay clusterRelay;
+    private final NotificationConfig notificationConfig;
+    private final ThreadPoolTaskExecutor executor;
+    
+    private final ScheduledExecutorService retryTimer;
+    
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter delivered;
+    
+    public NotificationDispatcher(AuthorSummaryService authorSummaryService,
+                                  NotificationWebSocketHandler webSocketHandler,
+                                  NotificationOutbox notificationOutbox,
+                                  ClusterNotificationRelay clusterRelay,
+                                  NotificationConfig notificationConfig,
+                                  @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor,
+                                  MeterRegistry meterRegistry) {
+        this.authorSummaryService = authorSummaryService;
+        this.webSocketHandler = webSocketHandler;
+        this.notificationOutbox = notificationOutbox;
+        this.clusterRelay = clusterRelay;
+        this.notificationConfig = notificationConfig;
+        this.executor = executor;
+        this.retryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notify-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dropped = Counter.builder("weblog.notifications.dropped")
+                .description("Notifications left pending for redelivery because a mailbox was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("weblog.notifications.failed")
+                .description("Notifications left pending for redelivery because their batch failed to deliver")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("weblog.notifications.dispatched")
+                .description("Notifications rendered and handed to the WebSocket registry")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Queue a stored notification for its recipient
+     * 
+     * @param notification pending notification with its outbox ID
+     */
+    public void dispatch(PendingNotification notification) {
+        Long recipientId = notification.getToUserId();
+        boolean[] accepted = new boolean[1];
+        Mailbox mailbox = mailboxes.compute(recipientId, (id, existing) -> {
+            Mailbox box = existing != null ? existing : new Mailbox(recipientId, notificationConfig.getMailboxCapacity());
+            accepted[0] = box.queue.offer(notification);
+            return box;
+        });
+        
+        if (!accepted[0]) {
+            dropped.increment();
+            log.warn("Notification mailbox full for user {}, {} {} left pending for redelivery",
+                    recipientId, notification.getType(), notification.getId());
+            return;
+        }
+        schedule(mailbox);
+    }
+    
+    /**
+     * Dispatch notifications that stayed pending longer than the redelivery delay
+     * (dropped from a full mailbox, failed to render, or stored by a node that stopped)
+     * 
+     * @return number of dispatched notifications
+     */
+    public int redeliverStale() {
+        List<PendingNotification> stale = notificationOutbox.claimStale(
+                Duration.ofSeconds(notificationConfig.getRedeliveryDelaySeconds()),
+                notificationConfig.getRedeliveryBatchSize());
+        stale.forEach(this::dispatch);
+        return stale.size();
+    }
+    
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(mailbox));
+            } catch (RejectedExecutionException e) {
+                // Notifications stay queued; the user may never be sent another one, so retry on a timer
+                mailbox.draining.set(false);
+                log.warn("Notification executor saturated, deferring mailbox of user {}", mailbox.recipientId);
+                deferRetry(mailbox);
+            }
+        }
+    }
+    
+    private void deferRetry(Mailbox mailbox) {
+        try {
+            retryTimer.schedule(() -> schedule(mailbox), notificationConfig.getRetryDelayMs(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the rows stay pending in the outbox
+            log.debug("Retry timer stopped, mailbox of user {} left to the redelivery job", mailbox.recipientId);
+        }
+    }
+    
+    private void drain(Mailbox mailbox) {
+        try {
+            List<PendingNotification> batch = new ArrayList<>();
+            while (mailbox.queue.drainTo(batch, notificationConfig.getBatchSize()) > 0) {
+                try {
+                    deliver(batch);
+                } catch (RuntimeException e) {
+                    // The batch's rows are still pending, so the redelivery job dispatches them again
+                    failed.increment(batch.size());
+                    log.error("Failed to deliver {} notifications to user {}, left pending for redelivery",
+                            batch.size(), mailbox.recipientId, e);
+                }
+                batch.clear();
+            }
+        } finally {
+            mailbox.draining.set(false);
+        }
+        
+        if (!mailbox.queue.isEmpty()) {
+            schedule(mailbox);
+        } else {
+            mailboxes.computeIfPresent(mailbox.recipientId,
+                    (id, box) -> box == mailbox && box.queue.isEmpty() && !box.draining.get() ? null : box);
+        }
+    }
+    
+    private void deliver(List<PendingNotification> batch) {
+        Set<Long> senderIds = new HashSet<>();
+        for (PendingNotification notification : batch) {
+            senderIds.add(notification.getFromUserId());
+        }
+        Map<Long, UserSummary> senders = authorSummaryService.getSummaries(senderIds);
+        
+        List<NotificationMessage> messages = new ArrayList<>(batch.size());
+        List<Long> orphaned = new ArrayList<>();
+        for (PendingNotification notification : batch) {
+            UserSummary sender = senders.get(notification.getFromUserId());
+            if (sender == null) {
+                log.debug("Sender {} no longer exists, discarding {}", notification.getFromUserId(), notification.getType());
+                orphaned.add(notification.getId());
+                continue;
+            }
+            messages.add(render(notification, sender));
+        }
+        if (!orphaned.isEmpty()) {
+            notificationOutbox.discard(orphaned);
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        
+        // Pushed only once the rendered payload is stored, so replay and relay serve the same message
+        List<String> payloads = notificationOutbox.render(messages);
+        for (int i = 0; i < messages.size(); i++) {
+            NotificationMessage message = messages.get(i);
+            webSocketHandler.sendPayloadToUser(message.getToUserId(), message.getId(), payloads.get(i));
+        }
+        clusterRelay.forward(messages);
+        delivered.increment(messages.size());
+    }
+    
+    private NotificationMessage render(PendingNotification notification, UserSummary sender) {
+        String senderName = sender.getDisplayName();
+        
+        Map<String, Object> data = new HashMap<>();
+        data.put("fromUserName", sender.getUsername());
+        data.put("fromUserNickname", senderName);
+        if (notification.getData() != null) {
+            data.putAll(notification.getData());
+        }
+        
+        return NotificationMessage.builder()
+                .id(notification.getId())
+                .type(notification.getType())
+                .fromUserId(notification.getFromUserId())
+                .toUserId(notification.getToUserId())
+                .message(messageText(notification.getType(), senderName))
+                .data(data)
+                .timestamp(notification.getTimestamp())
+                .build();
+    }
+    
+    private static String messageText(String type, String senderName) {
+        return switch (type) {
+            case NotificationMessage.Type.PAIR_REQUEST -> senderName + " sent you a pair request";
+            case NotificationMessage.Type.PAIR_REQUEST_ACCEPTED -> senderName + " accepted your pair request";
+            case NotificationMessage.Type.PAIR_REQUEST_REJECTED -> senderName + " rejected your pair request";
+            case NotificationMessage.Type.NEW_POST -> senderName + " published a new post";
+            case NotificationMessage.Type.POST_UPDATED -> senderName + " updated a post";
+            case NotificationMessage.Type.POST_DELETED -> senderName + " deleted a post";
+            case NotificationMessage.Type.NEW_COMMENT -> senderName + " commented on your post";
+            case NotificationMessage.Type.COMMENT_DELETED -> senderName + " deleted a comment on your post";
+            case NotificationMessage.Type.RELATIONSHIP_ENDED -> "Your relationship with " + senderName + " has ended";
+            default -> senderName + " sent you a notification";
+        };
+    }
+    
+    @Override
+    public void close() {
+        retryTimer.shutdownNow();
+    }
+    
+    /**
+     * Bounded FIFO of notifications for one recipient
+     */
+    private static class Mailbox {
+        private final Long recipientId;
+        private final BlockingQueue<PendingNotification> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        
+        Mailbox(Long recipientId, int capacity) {
+            this.recipientId = recipientId;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+}
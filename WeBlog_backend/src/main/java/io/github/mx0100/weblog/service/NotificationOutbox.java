@@ -0,0 +1,250 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.config.NotificationConfig;
+import io.github.mx0100.weblog.dto.NotificationMessage;
+import io.github.mx0100.weblog.dto.PendingNotification;
+import io.github.mx0100.weblog.utils.TimeUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notification store used for replay on reconnect
+ * A notification is stored as pending in the transaction that raised it, so it survives a full
+ * mailbox, a saturated executor or a crash before rendering; rendering replaces the pending
+ * payload with the message sent to clients. Only rendered rows are replayed or relayed
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+    
+    private static final String STORE_SQL =
+            "INSERT INTO notifications (recipient_id, type, payload, created_at, expires_at, pending_since) " +
+            "VALUES (?, ?, CAST(? AS jsonb), ?, ?, ?) RETURNING id";
+    
+    private static final String RENDER_SQL =
+            "UPDATE notifications SET payload = CAST(? AS jsonb), pending_since = NULL WHERE id = ?";
+    
+    private static final String DISCARD_SQL =
+            "DELETE FROM notifications WHERE id = ANY(?)";
+    
+    /**
+     * Claim rows pending for too long; the claim restarts their delay, and SKIP LOCKED keeps
+     * nodes running the job at the same time from claiming the same rows
+     */
+    private static final String CLAIM_SQL =
+            "UPDATE notifications SET pending_since = ? WHERE id IN " +
+            "(SELECT id FROM notifications WHERE pending_since < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, payload";
+    
+    private static final String REPLAY_SQL =
+            "SELECT id, payload FROM notifications " +
+            "WHERE recipient_id = ? AND id > ? AND expires_at > ? AND pending_since IS NULL " +
+            "  AND (id > ? OR created_at >= (SELECT created_at FROM notifications WHERE id = ?) - make_interval(secs => ?)) " +
+            "ORDER BY id LIMIT ?";
+    
+    private static final String LOAD_SQL =
+            "SELECT id, recipient_id, payload FROM notifications WHERE id = ANY(?) AND pending_since IS NULL ORDER BY id";
+    
+    private static final String PURGE_SQL =
+            "DELETE FROM notifications WHERE id IN " +
+            "(SELECT id FROM notifications WHERE expires_at < ? LIMIT ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationConfig notificationConfig;
+    
+    /**
+     * Callback for replayed notifications
+     */
+    @FunctionalInterface
+    public interface ReplayHandler {
+        void accept(Long id, String payload) throws Exception;
+    }
+    
+    /**
+     * Callback for notifications loaded by ID
+     */
+    @FunctionalInterface
+    public interface LoadHandler {
+        void accept(Long recipientId, Long id, String payload);
+    }
+    
+    /**
+     * Store a notification before it is rendered; joins the caller's transaction
+     * 
+     * @param notification pending notification
+     * @return outbox ID
+     */
+    public Long store(PendingNotification notification) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification " + notification.getType(), e);
+        }
+        LocalDateTime now = TimeUtils.nowUtc();
+        return jdbcTemplate.queryForObject(STORE_SQL, Long.class,
+                notification.getToUserId(),
+                notification.getType(),
+                payload,
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now.plusDays(notificationConfig.getTtlDays())),
+                Timestamp.valueOf(now));
+    }
+    
+    /**
+     * Replace the pending payloads with the rendered messages in one batched update
+     * 
+     * @param messages rendered messages with their outbox IDs
+     * @return serialized payloads, in the same order as the messages
+     */
+    public List<String> render(List<NotificationMessage> messages) {
+        List<String> payloads = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            try {
+                payloads.add(objectMapper.writeValueAsString(message));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize notification " + message.getType(), e);
+            }
+        }
+        
+        jdbcTemplate.batchUpdate(RENDER_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, payloads.get(i));
+                ps.setLong(2, messages.get(i).getId());
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return messages.size();
+            }
+        });
+        return payloads;
+    }
+    
+    /**
+     * Delete pending notifications that will never be rendered (e.g. the sender was deleted)
+     * 
+     * @param ids outbox IDs
+     */
+    public void discard(List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DISCARD_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+    
+    /**
+     * Claim notifications still pending after the given delay, oldest first
+     * 
+     * @param delay time a notification may stay pending before it is handed out again
+     * @param limit maximum number of claimed notifications
+     * @return claimed notifications with their outbox IDs
+     */
+    public List<PendingNotification> claimStale(Duration delay, int limit) {
+        LocalDateTime now = TimeUtils.nowUtc();
+        List<PendingNotification> claimed = new ArrayList<>();
+        List<Long> unreadable = new ArrayList<>();
+        jdbcTemplate.query(CLAIM_SQL, rs -> {
+            long id = rs.getLong("id");
+            try {
+                claimed.add(objectMapper.readValue(rs.getString("payload"), PendingNotification.class)
+                        .toBuilder()
+                        .id(id)
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.warn("Discarding unreadable pending notification {}: {}", id, e.getMessage());
+                unreadable.add(id);
+            }
+        }, Timestamp.valueOf(now), Timestamp.valueOf(now.minus(delay)), limit);
+        
+        if (!unreadable.isEmpty()) {
+            discard(unreadable);
+        }
+        return claimed;
+    }
+    
+    /**
+     * Stream unexpired notifications newer than the last seen ID, oldest first
+     * Also covers the overlap below it: rows with a lower ID created around the same time as the
+     * cursor's row, which may have committed after the client saw it
+     * 
+     * @param recipientId recipient user ID
+     * @param lastSeenId last notification ID the client received
+     * @param handler callback invoked per row
+     * @return number of replayed notifications
+     */
+    public int replay(Long recipientId, Long lastSeenId, ReplayHandler handler) {
+        int[] count = new int[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REPLAY_SQL);
+            ps.setFetchSize(100);
+            ps.setLong(1, recipientId);
+            ps.setLong(2, lastSeenId - notificationConfig.getReplayOverlap());
+            ps.setTimestamp(3, Timestamp.valueOf(TimeUtils.nowUtc()));
+            ps.setLong(4, lastSeenId);
+            ps.setLong(5, lastSeenId);
+            ps.setInt(6, notificationConfig.getReplayOverlapSeconds());
+            ps.setInt(7, notificationConfig.getReplayLimit());
+            return ps;
+        }, rs -> {
+            try {
+                handler.accept(rs.getLong("id"), rs.getString("payload"));
+                count[0]++;
+            } catch (Exception e) {
+                throw new SQLException("Replay aborted for user " + recipientId, e);
+            }
+        });
+        return count[0];
+    }
+    
+    /**
+     * Load stored notifications by ID, oldest first (used to deliver notifications published on another node)
+     * 
+     * @param ids notification IDs
+     * @param handler callback invoked per row
+     */
+    public void load(List<Long> ids, LoadHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOAD_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            handler.accept(rs.getLong("recipient_id"), rs.getLong("id"), rs.getString("payload"));
+        });
+    }
+    
+    /**
+     * Delete expired notifications in bounded batches
+     * 
+     * @return number of deleted rows
+     */
+    public int purgeExpired() {
+        LocalDateTime now = TimeUtils.nowUtc();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(now), notificationConfig.getPurgeBatchSize());
+            total += deleted;
+        } while (deleted == notificationConfig.getPurgeBatchSize());
+        return total;
+    }
+}
@@ -1,9 +1,13 @@
 package io.github.mx0100.weblog.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.config.WebSocketSessionConfig;
 import io.github.mx0100.weblog.dto.NotificationMessage;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
@@ -11,35 +15,86 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket handler for notifications
+ * Each user may hold several sessions (tabs, devices); every session has its own queued sender.
+ * Sessions on this node are announced to the other nodes through the presence directory
  * 
  * @author mx0100
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class NotificationWebSocketHandler extends TextWebSocketHandler {
 
     private final ObjectMapper objectMapper;
+    private final WebSocketSessionConfig sessionConfig;
+    private final ThreadPoolTaskExecutor sendExecutor;
+    private final NotificationOutbox notificationOutbox;
+    private final PresenceDirectory presenceDirectory;
+    private final QueuedSessionSender.Metrics senderMetrics;
     
-    // Store mapping from user ID to WebSocket session
-    private final ConcurrentHashMap<Long, WebSocketSession> userSessions = new ConcurrentHashMap<>();
+    // Store mapping from user ID to the senders of all open sessions
+    private final ConcurrentHashMap<Long, Set<QueuedSessionSender>> userSessions = new ConcurrentHashMap<>();
+    
+    // Store mapping from session ID to its sender
+    private final ConcurrentHashMap<String, QueuedSessionSender> sessionSenders = new ConcurrentHashMap<>();
+    
+    public NotificationWebSocketHandler(ObjectMapper objectMapper,
+                                        WebSocketSessionConfig sessionConfig,
+                                        @Qualifier("webSocketSendExecutor") ThreadPoolTaskExecutor sendExecutor,
+                                        NotificationOutbox notificationOutbox,
+                                        PresenceDirectory presenceDirectory,
+                                        MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.sessionConfig = sessionConfig;
+        this.sendExecutor = sendExecutor;
+        this.notificationOutbox = notificationOutbox;
+        this.presenceDirectory = presenceDirectory;
+        this.senderMetrics = new QueuedSessionSender.Metrics(meterRegistry);
+        Gauge.builder("weblog.websocket.sessions", sessionSenders, Map::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("weblog.websocket.users", userSessions, Map::size)
+                .description("Users with at least one open WebSocket session")
+                .register(meterRegistry);
+        Gauge.builder("weblog.websocket.queue.depth", this, NotificationWebSocketHandler::getQueuedMessageCount)
+                .description("WebSocket messages waiting in session send queues")
+                .register(meterRegistry);
+        Gauge.builder("weblog.websocket.send.executor.queue.depth", sendExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Session drains waiting for a sender thread")
+                .register(meterRegistry);
+    }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         Long userId = (Long) session.getAttributes().get("userId");
         
         if (userId != null) {
-            userSessions.put(userId, session);
+            QueuedSessionSender sender = new QueuedSessionSender(session,
+                    sessionConfig.getSendTimeLimit(),
+                    sessionConfig.getBufferSizeLimit(),
+                    sessionConfig.getQueueCapacity(),
+                    sendExecutor,
+                    senderMetrics);
+            sessionSenders.put(session.getId(), sender);
+            userSessions.compute(userId, (id, senders) -> {
+                Set<QueuedSessionSender> userSenders = senders != null ? senders : ConcurrentHashMap.newKeySet();
+                userSenders.add(sender);
+                return userSenders;
+            });
+            presenceDirectory.sessionOpened(userId);
+            
             log.info("✅ WebSocket connection established successfully, user ID: {}, session ID: {}", userId, session.getId());
-            log.info("📊 Current online users: {}", userSessions.size());
+            log.info("📊 Current online users: {}, open sessions: {}", userSessions.size(), sessionSenders.size());
             log.info("🔗 User {} is now ONLINE", userId);
             
             // 发送pending通知给刚上线的用户
-            sendPendingNotifications(userId);
+            sendPendingNotifications(userId, sender, (Long) session.getAttributes().get("lastSeenId"));
         } else {
             log.warn("❌ WebSocket connection failed, user ID not found");
             session.close();
@@ -58,10 +113,12 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         Long userId = (Long) session.getAttributes().get("userId");
         
         if (userId != null) {
-            userSessions.remove(userId);
+            removeSession(userId, session);
             log.info("📱 WebSocket connection closed, user ID: {}, session ID: {}", userId, session.getId());
-            log.info("📊 Current online users: {}", userSessions.size());
-            log.info("💤 User {} is now OFFLINE", userId);
+            log.info("📊 Current online users: {}, open sessions: {}", userSessions.size(), sessionSenders.size());
+            if (!userSessions.containsKey(userId)) {
+                log.info("💤 User {} is now OFFLINE", userId);
+            }
         }
     }
 
@@ -71,32 +128,55 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         log.error("WebSocket transport error, user ID: {}, session ID: {}", userId, session.getId(), exception);
         
         if (userId != null) {
-            userSessions.remove(userId);
+            removeSession(userId, session);
         }
     }
     
     /**
-     * Send notification message to specified user
+     * Send notification message to all sessions of specified user
+     * Messages are queued per session and written off the calling thread
      * 
      * @param userId user ID
      * @param message notification message
      */
     public void sendNotificationToUser(Long userId, NotificationMessage message) {
-        WebSocketSession session = userSessions.get(userId);
+        if (!userSessions.containsKey(userId)) {
+            log.debug("User {} is not online, unable to send WebSocket notification", userId);
+            return;
+        }
+        
+        try {
+            sendPayloadToUser(userId, message.getId(), objectMapper.writeValueAsString(message));
+        } catch (IOException e) {
+            log.error("Failed to serialize WebSocket message, user ID: {}", userId, e);
+        }
+    }
+    
+    /**
+     * Send an already serialized notification to all sessions of specified user
+     * 
+     * @param userId user ID
+     * @param notificationId outbox ID of the notification, or null if it was not stored
+     * @param payload serialized notification message
+     * @return false if the user has no session on this node
+     */
+    public boolean sendPayloadToUser(Long userId, Long notificationId, String payload) {
+        Set<QueuedSessionSender> senders = userSessions.get(userId);
         
-        if (session != null && session.isOpen()) {
-            try {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                session.sendMessage(new TextMessage(jsonMessage));
-                log.info("📤 Sent WebSocket notification to user {}: {}", userId, jsonMessage);
-            } catch (IOException e) {
-                log.error("Failed to send WebSocket message, user ID: {}", userId, e);
-                // Remove invalid session if sending fails
-                userSessions.remove(userId);
+        if (senders == null || senders.isEmpty()) {
+            log.debug("User {} is not online, notification {} kept for replay", userId, notificationId);
+            return false;
+        }
+        
+        TextMessage textMessage = new TextMessage(payload);
+        int queued = 0;
+        for (QueuedSessionSender sender : senders) {
+            if (sender.enqueue(textMessage, notificationId)) {
+                queued++;
             }
-        } else {
-            log.debug("User {} is not online, unable to send WebSocket notification", userId);
         }
+        log.info("📤 Queued WebSocket notification {} to user {} on {}/{} sessions", notificationId, userId, queued, senders.size());
+        return true;
     }
     
     /**
@@ -108,6 +188,28 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
         return userSessions.size();
     }
     
+    /**
+     * Get open session count across all users
+     * 
+     * @return open session count
+     */
+    public int getOpenSessionCount() {
+        return sessionSenders.size();
+    }
+    
+    /**
+     * Get the number of messages waiting in all session send queues
+     * 
+     * @return queued message count
+     */
+    public int getQueuedMessageCount() {
+        int depth = 0;
+        for (QueuedSessionSender sender : sessionSenders.values()) {
+            depth += sender.getQueueDepth();
+        }
+        return depth;
+    }
+    
     /**
      * Check if user is online
      * 
@@ -115,20 +217,52 @@ public class NotificationWebSocketHandler extends TextWebSocketHandler {
      * @return whether online
      */
     public boolean isUserOnline(Long userId) {
-        WebSocketSession session = userSessions.get(userId);
-        boolean isOnline = session != null && session.isOpen();
+        Set<QueuedSessionSender> senders = userSessions.get(userId);
+        boolean isOnline = senders != null && senders.stream().anyMatch(QueuedSessionSender::isOpen);
         log.debug("🔍 Checking online status for user {}: {}", userId, isOnline ? "ONLINE" : "OFFLINE");
         return isOnline;
     }
     
+    /**
+     * Remove a session and drop the user entry once the last session is gone
+     * 
+     * @param userId user ID
+     * @param session closed session
+     */
+    private void removeSession(Long userId, WebSocketSession session) {
+        QueuedSessionSender sender = sessionSenders.remove(session.getId());
+        if (sender == null) {
+            return;
+        }
+        userSessions.computeIfPresent(userId, (id, senders) -> {
+            senders.remove(sender);
+            return senders.isEmpty() ? null : senders;
+        });
+        presenceDirectory.sessionClosed(userId);
+    }
+    
     /**
      * Send pending notifications to user who just came online
+     * Replays stored notifications after the client's last seen ID (and a short overlap below it);
+     * live notifications arriving meanwhile are held by the sender and released once the replay is done
      * 
      * @param userId user ID
+     * @param sender sender of the new session
+     * @param lastSeenId last notification ID the client received, or null to skip replay
      */
-    private void sendPendingNotifications(Long userId) {
-        // TODO: Implement persistent notification storage
-        // For now, just log that user is online and ready to receive notifications
-        log.info("📬 User {} is online and ready to receive notifications", userId);
+    private void sendPendingNotifications(Long userId, QueuedSessionSender sender, Long lastSeenId) {
+        try {
+            if (lastSeenId != null) {
+                int replayed = notificationOutbox.replay(userId, lastSeenId,
+                        (id, payload) -> sender.replay(new TextMessage(payload), id));
+                log.info("📬 Replayed {} notifications to user {} after ID {}", replayed, userId, lastSeenId);
+            } else {
+                log.info("📬 User {} is online and ready to receive notifications", userId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to replay notifications to user {}", userId, e);
+        } finally {
+            sender.finishReplay();
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.entity.UserRelationship;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
+import io.github.mx0100.weblog.repository.UserRelationshipRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory userId -> partnerId map of ACTIVE relationships
+ * Loaded at startup and kept current by after-commit relationship events,
+ * so access checks do not need a database round trip
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+public class PartnerCache {
+    
+    private final UserRelationshipRepository userRelationshipRepository;
+    
+    private final ConcurrentHashMap<Long, Long> partners = new ConcurrentHashMap<>();
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter repairs;
+    
+    private volatile boolean loaded = false;
+    
+    public PartnerCache(UserRelationshipRepository userRelationshipRepository, MeterRegistry meterRegistry) {
+        this.userRelationshipRepository = userRelationshipRepository;
+        this.hits = Counter.builder("weblog.partner.cache.requests")
+                .description("Partner lookups answered from memory")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("weblog.partner.cache.requests")
+                .description("Partner lookups that fell back to the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.repairs = Counter.builder("weblog.partner.cache.repairs")
+                .description("Entries corrected by the consistency verification job")
+                .register(meterRegistry);
+        Gauge.builder("weblog.partner.cache.size", partners, Map::size)
+                .description("Users with an active partner held in memory")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Load all active relationships once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<UserRelationship> relationships = userRelationshipRepository.findAllActiveRelationships();
+        for (UserRelationship relationship : relationships) {
+            partners.put(relationship.getUser1Id(), relationship.getUser2Id());
+            partners.put(relationship.getUser2Id(), relationship.getUser1Id());
+        }
+        loaded = true;
+        log.info("Partner cache loaded with {} active relationships", relationships.size());
+    }
+    
+    /**
+     * Get user's partner ID
+     * 
+     * @param userId user ID
+     * @return partner user ID or empty if single
+     */
+    public Optional<Long> getPartnerId(Long userId) {
+        if (!loaded) {
+            misses.increment();
+            return userRelationshipRepository.findActiveRelationshipByUserId(userId)
+                    .map(relationship -> relationship.getOtherUserId(userId));
+        }
+        hits.increment();
+        return Optional.ofNullable(partners.get(userId));
+    }
+    
+    /**
+     * Check if two users are in an active relationship
+     * 
+     * @param userId1 first user ID
+     * @param userId2 second user ID
+     * @return true if they are coupled
+     */
+    public boolean areCoupled(Long userId1, Long userId2) {
+        if (!loaded) {
+            misses.increment();
+            return userRelationshipRepository.existsActiveRelationshipBetweenUsers(userId1, userId2);
+        }
+        hits.increment();
+        return userId2.equals(partners.get(userId1));
+    }
+    
+    /**
+     * Apply a relationship change once its transaction has committed
+     * 
+     * @param event relationship changed event
+     */
+    @TransactionalEventListener
+    public void onRelationshipChanged(RelationshipChangedEvent event) {
+        Long userId = event.getUserId();
+        Long partnerId = event.getPartnerId();
+        
+        if (event.isActive()) {
+            partners.put(userId, partnerId);
+            partners.put(partnerId, userId);
+        } else {
+            partners.remove(userId, partnerId);
+            partners.remove(partnerId, userId);
+        }
+        log.debug("Partner cache updated: users {} and {} active={}", userId, partnerId, event.isActive());
+    }
+    
+    /**
+     * Compare the cache with the database and repair any drift
+     * Mismatched users are re-read individually so that changes committed
+     * after the snapshot are not rolled back
+     * 
+     * @return number of repaired entries
+     */
+    public int verify() {
+        Map<Long, Long> expected = new HashMap<>();
+        for (UserRelationship relationship : userRelationshipRepository.findAllActiveRelationships()) {
+            expected.put(relationship.getUser1Id(), relationship.getUser2Id());
+            expected.put(relationship.getUser2Id(), relationship.getUser1Id());
+        }
+        
+        Set<Long> suspects = new HashSet<>();
+        expected.forEach((userId, partnerId) -> {
+            if (!partnerId.equals(partners.get(userId))) {
+                suspects.add(userId);
+            }
+        });
+        partners.forEach((userId, partnerId) -> {
+            if (!partnerId.equals(expected.get(userId))) {
+                suspects.add(userId);
+            }
+        });
+        
+        int repaired = 0;
+        for (Long userId : suspects) {
+            Optional<Long> partnerId = userRelationshipRepository.findActiveRelationshipByUserId(userId)
+                    .map(relationship -> relationship.getOtherUserId(userId));
+            Long cached = partners.get(userId);
+            if (partnerId.isPresent() && !partnerId.get().equals(cached)) {
+                partners.put(userId, partnerId.get());
+                repaired++;
+            } else if (partnerId.isEmpty() && cached != null) {
+                partners.remove(userId, cached);
+                repaired++;
+            }
+        }
+        
+        if (repaired > 0) {
+            repairs.increment(repaired);
+            log.warn("Partner cache verification repaired {} entries", repaired);
+        } else {
+            log.debug("Partner cache verification found no drift ({} users)", expected.size());
+        }
+        return repaired;
+    }
+}
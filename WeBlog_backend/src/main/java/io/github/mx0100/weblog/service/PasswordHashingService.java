@@ -0,0 +1,129 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.common.ResponseCode;
+import io.github.mx0100.weblog.config.PasswordHashingConfig;
+import io.github.mx0100.weblog.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Password hashing service
+ * BCrypt runs on a small bounded executor so a login burst cannot occupy every web server thread;
+ * when the executor queue is full requests fail fast with {@link ServiceBusyException} (HTTP 429)
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+    
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final PasswordHashingConfig config;
+    
+    private final Counter rejected;
+    private final Timer hashTimer;
+    
+    public PasswordHashingService(PasswordHashingConfig config,
+                                  @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.executor = executor;
+        this.passwordEncoder = new BCryptPasswordEncoder(config.getStrength());
+        this.rejected = Counter.builder("weblog.password.hashing.rejected")
+                .description("Hash requests rejected because the hashing executor was saturated")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("weblog.password.hashing.duration")
+                .description("Time spent computing BCrypt hashes")
+                .register(meterRegistry);
+        Gauge.builder("weblog.password.hashing.queue.depth", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("weblog.password.hashing.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Encode password
+     * 
+     * @param rawPassword raw password
+     * @return encoded password
+     * @throws ServiceBusyException if the hashing executor is saturated
+     */
+    public String encode(String rawPassword) {
+        if (rawPassword == null || rawPassword.trim().isEmpty()) {
+            throw new IllegalArgumentException("Password cannot be null or empty");
+        }
+        return submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+    
+    /**
+     * Verify password
+     * 
+     * @param rawPassword raw password
+     * @param encodedPassword encoded password
+     * @return true if matches
+     * @throws ServiceBusyException if the hashing executor is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return submit(() -> hashTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+    
+    /**
+     * Check if a stored hash uses a lower work factor than configured
+     * 
+     * @param encodedPassword encoded password
+     * @return true if the hash should be re-encoded
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            log.warn("Password hashing executor saturated, rejecting request");
+            throw new ServiceBusyException(ResponseCode.TOO_MANY_REQUESTS.getMessage(), e);
+        }
+        
+        try {
+            return future.get(config.getTimeoutSeconds(), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException(ResponseCode.TOO_MANY_REQUESTS.getMessage(), e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(ResponseCode.TOO_MANY_REQUESTS.getMessage(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
@@ -1,27 +1,35 @@
 package io.github.mx0100.weblog.service;
 
 import io.github.mx0100.weblog.common.ResponseCode;
-import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.config.FeedReadModelConfig;
 import io.github.mx0100.weblog.dto.request.PostCreateRequest;
 import io.github.mx0100.weblog.dto.request.PostUpdateRequest;
+import io.github.mx0100.weblog.dto.response.CommentResponse;
 import io.github.mx0100.weblog.dto.response.PageResponse;
 import io.github.mx0100.weblog.dto.response.PostResponse;
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.FeedEntry;
 import io.github.mx0100.weblog.entity.Post;
-import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.event.PostEvent;
 import io.github.mx0100.weblog.repository.CommentRepository;
+import io.github.mx0100.weblog.repository.FeedEntryRepository;
 import io.github.mx0100.weblog.repository.PostRepository;
-import io.github.mx0100.weblog.repository.UserRepository;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.github.mx0100.weblog.repository.projection.PostCommentId;
 import io.github.mx0100.weblog.utils.BeanUtils;
+import io.github.mx0100.weblog.utils.CursorUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Post service
@@ -32,17 +40,32 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
+@Timed(value = "weblog.service.duration", description = "Service method latency")
 @RequiredArgsConstructor
 public class PostService {
     
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final AuthorSummaryService authorSummaryService;
     private final UserRelationshipService userRelationshipService;
-    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FeedEntryRepository feedEntryRepository;
+    private final FeedReadModelConfig feedReadModelConfig;
+    private final FeedCache feedCache;
     
     private static final int DEFAULT_PAGE_SIZE = 10;
     
+    /**
+     * Largest keyset slice served; larger requested sizes are clamped
+     * (also bounds the number of first-slice cache keys per couple)
+     */
+    private static final int MAX_SLICE_SIZE = 50;
+    
+    /**
+     * Upper bound for the number of latest comments embedded per post
+     */
+    private static final int MAX_COMMENT_PREVIEW = 10;
+    
     /**
      * Create new post with rich text support
      * 
@@ -64,41 +87,28 @@ public class PostService {
         log.info("Creating post for user: {}", userId);
         
         // Verify user exists
-        User author = findUserById(userId);
+        UserSummary author = findAuthor(userId);
         
         // Create new post entity
         Post post = new Post();
         post.setUserId(userId);
         
-        // Set content based on request type (rich text or legacy plain text)
-        RichContent effectiveContent = request.getEffectiveContent();
-        if (effectiveContent != null) {
-            post.setRichContent(new RichContent(
-                effectiveContent.getType(),
-                effectiveContent.getVersion(),
-                effectiveContent.getDelta(),
-                effectiveContent.getPlainText()
-            ));
-            log.debug("Created post with {} content", effectiveContent.getType());
-        } else {
-            // This should not happen due to validation, but provide fallback
-            post.setPlainTextContent("");
-            log.warn("Created post with empty content for user {}", userId);
-        }
+        // Set content with server-derived plain text, preview and word count (extracted once during validation)
+        post.setExtractedContent(request.getExtractedContent());
+        log.debug("Created post with {} content", post.getRichContent().getType());
         
-        // Save post to database
-        Post savedPost = postRepository.save(post);
+        // Save post to database (flushed so the in-transaction feed projection can reference the row)
+        Post savedPost = postRepository.saveAndFlush(post);
         log.info("Post created successfully with ID: {} (content type: {})", 
                 savedPost.getPostId(), savedPost.hasRichTextContent() ? "rich_text" : "plain_text");
         
         // New post has no comments
         List<Long> commentIds = new ArrayList<>();
-        int commentsCount = 0;
 
-        // Send notification to partner about new post
-        notificationService.sendNewPostNotification(savedPost);
+        // Notify partner about new post after commit
+        eventPublisher.publishEvent(new PostEvent(PostEvent.Kind.CREATED, savedPost.getPostId(), userId, savedPost.getPreview()));
         
-        return BeanUtils.toPostResponse(savedPost, author, commentIds, commentsCount);
+        return BeanUtils.toPostResponse(savedPost, author, commentIds);
     }
     
     /**
@@ -107,9 +117,11 @@ public class PostService {
      * @param currentUserId current user ID (for filtering)
      * @param page page number (0-based)
      * @param size page size (default: 10)
+     * @param commentPreview number of latest comments to embed per post instead of comment IDs (optional)
      * @return page response of posts
      */
-    public PageResponse<PostResponse> getPosts(Long currentUserId, Integer page, Integer size) {
+    @Transactional(readOnly = true)
+    public PageResponse<PostResponse> getPosts(Long currentUserId, Integer page, Integer size, Integer commentPreview) {
         if (currentUserId == null) {
             throw new IllegalArgumentException("Current user ID cannot be null");
         }
@@ -124,36 +136,130 @@ public class PostService {
         
         log.info("Getting posts for user {} - page: {}, size: {}", currentUserId, page, size);
         
+        int pageNumber = page;
+        int pageSize = size;
+        int preview = normalizeCommentPreview(commentPreview);
+        return feedCache.get(currentUserId, feedCache.offsetKey(pageNumber, pageSize, preview),
+                () -> loadPosts(currentUserId, pageNumber, pageSize, preview));
+    }
+    
+    /**
+     * Render a page of the current user's timeline from the database
+     * 
+     * @param currentUserId current user ID
+     * @param page page number (0-based)
+     * @param size page size
+     * @param commentPreview number of latest comments to embed per post (0 for comment IDs)
+     * @return page response of posts
+     */
+    private PageResponse<PostResponse> loadPosts(Long currentUserId, int page, int size, int commentPreview) {
+        Pageable pageable = PageRequest.of(page, size);
+        
+        // Serve from the timeline read model when enabled (no relationship lookup)
+        if (feedReadModelConfig.isEnabled()) {
+            Page<FeedEntry> entryPage = feedEntryRepository.findByOwnerIdOrderByCreatedAtDescPostIdDesc(currentUserId, pageable);
+            return PageResponse.of(new PageImpl<>(toPostResponsesFromFeed(entryPage.getContent(), commentPreview),
+                    entryPage.getPageable(), entryPage.getTotalElements()));
+        }
+        
         // Get visible user IDs (self + partner if coupled)
         List<Long> visibleUserIds = getVisibleUserIds(currentUserId);
         
-        Pageable pageable = PageRequest.of(page, size);
         Page<Post> postPage = postRepository.findByUserIdInOrderByCreatedAtDesc(visibleUserIds, pageable);
         
-        // Get all unique user IDs for author loading
-        List<Long> userIds = postPage.getContent().stream()
-                .map(Post::getUserId)
-                .distinct()
-                .collect(Collectors.toList());
+        return PageResponse.of(toPostResponsePage(postPage, commentPreview));
+    }
+    
+    /**
+     * Get posts with keyset pagination (filtered by user relationship)
+     * Does not run a count query and stays fast for deep scrolls
+     * 
+     * @param currentUserId current user ID (for filtering)
+     * @param cursor cursor returned by the previous slice (null or blank for the first slice)
+     * @param size slice size (default: 10, at most 50)
+     * @param commentPreview number of latest comments to embed per post instead of comment IDs (optional)
+     * @return slice response of posts with the next cursor
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PostResponse> getPostsByCursor(Long currentUserId, String cursor, Integer size, Integer commentPreview) {
+        if (currentUserId == null) {
+            throw new IllegalArgumentException("Current user ID cannot be null");
+        }
+        
+        // Set default values
+        if (size == null || size <= 0) {
+            size = DEFAULT_PAGE_SIZE;
+        }
+        size = Math.min(size, MAX_SLICE_SIZE);
+        
+        CursorUtils.Cursor after = CursorUtils.decode(cursor);
+        
+        log.info("Getting posts for user {} - cursor: {}, size: {}", currentUserId, cursor, size);
+        
+        int preview = normalizeCommentPreview(commentPreview);
+        
+        // Only the first slice is shared between partners often enough to cache
+        if (after == null) {
+            int sliceSize = size;
+            return feedCache.get(currentUserId, feedCache.firstSliceKey(sliceSize, preview),
+                    () -> loadPostsByCursor(currentUserId, null, sliceSize, preview));
+        }
+        return loadPostsByCursor(currentUserId, after, size, preview);
+    }
+    
+    /**
+     * Render a keyset slice of the current user's timeline from the database
+     * 
+     * @param currentUserId current user ID
+     * @param after decoded cursor (null for the first slice)
+     * @param size slice size
+     * @param commentPreview number of latest comments to embed per post (0 for comment IDs)
+     * @return slice response of posts with the next cursor
+     */
+    private PageResponse<PostResponse> loadPostsByCursor(Long currentUserId, CursorUtils.Cursor after, int size,
+                                                         int commentPreview) {
+        // Fetch one extra row to detect whether another slice follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        
+        // Serve from the timeline read model when enabled (single index range scan)
+        if (feedReadModelConfig.isEnabled()) {
+            List<FeedEntry> entries = after == null
+                    ? feedEntryRepository.findSlice(currentUserId, limit)
+                    : feedEntryRepository.findSliceAfter(currentUserId, after.getCreatedAt(), after.getId(), limit);
+            
+            boolean hasNext = entries.size() > size;
+            if (hasNext) {
+                entries = entries.subList(0, size);
+            }
+            
+            String nextCursor = null;
+            if (hasNext) {
+                FeedEntry last = entries.get(entries.size() - 1);
+                nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getPostId());
+            }
+            
+            return PageResponse.ofSlice(toPostResponsesFromFeed(entries, commentPreview), size, after == null, nextCursor);
+        }
         
-        // Batch load users to avoid N+1 problem
-        Map<Long, User> userMap = loadUsersMap(userIds);
+        // Get visible user IDs (self + partner if coupled)
+        List<Long> visibleUserIds = getVisibleUserIds(currentUserId);
         
-        // Batch load comment information for all posts
-        List<Long> postIds = postPage.getContent().stream()
-                .map(Post::getPostId)
-                .collect(Collectors.toList());
+        List<Post> posts = after == null
+                ? postRepository.findSliceByUserIdIn(visibleUserIds, limit)
+                : postRepository.findSliceByUserIdInAfter(visibleUserIds, after.getCreatedAt(), after.getId(), limit);
         
-        Map<Long, List<Long>> postCommentIdsMap = loadPostCommentIds(postIds);
-        Map<Long, Integer> postCommentsCountMap = loadPostCommentsCount(postIds);
+        boolean hasNext = posts.size() > size;
+        if (hasNext) {
+            posts = posts.subList(0, size);
+        }
         
-        // Convert to response DTOs
-        Page<PostResponse> responsePage = postPage.map(post -> 
-                BeanUtils.toPostResponse(post, userMap.get(post.getUserId()),
-                        postCommentIdsMap.get(post.getPostId()),
-                        postCommentsCountMap.get(post.getPostId())));
+        String nextCursor = null;
+        if (hasNext) {
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getPostId());
+        }
         
-        return PageResponse.of(responsePage);
+        return PageResponse.ofSlice(toPostResponses(posts, commentPreview), size, after == null, nextCursor);
     }
     
     /**
@@ -164,6 +270,7 @@ public class PostService {
      * @return post response
      * @throws RuntimeException if post not found or access denied
      */
+    @Transactional(readOnly = true)
     public PostResponse getPostById(Long postId, Long currentUserId) {
         if (postId == null || currentUserId == null) {
             throw new IllegalArgumentException("Post ID and current user ID cannot be null");
@@ -186,15 +293,12 @@ public class PostService {
             throw new RuntimeException(ResponseCode.PERMISSION_DENIED.getMessage());
         }
         
-        User author = findUserById(post.getUserId());
+        UserSummary author = findAuthor(post.getUserId());
         
         // Load comment information for single post
-        List<Long> commentIds = commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
-                .map(comment -> comment.getCommentId())
-                .collect(Collectors.toList());
-        int commentsCount = (int) commentRepository.countByPostId(postId);
+        List<Long> commentIds = loadPostCommentIds(List.of(postId)).getOrDefault(postId, new ArrayList<>());
         
-        return BeanUtils.toPostResponse(post, author, commentIds, commentsCount);
+        return BeanUtils.toPostResponse(post, author, commentIds);
     }
     
     /**
@@ -226,40 +330,27 @@ public class PostService {
 
         // Validate and update content
         if (request.hasValidContent()) {
-            RichContent newContent = request.getRichContent();
-            
             // Set the new content on the existing post entity
-            post.setRichContent(new RichContent(
-                newContent.getType(),
-                newContent.getVersion(),
-                newContent.getDelta(),
-                newContent.getPlainText()
-            ));
+            post.setExtractedContent(request.getExtractedContent());
             
             Post updatedPost = postRepository.save(post);
-            User author = findUserById(updatedPost.getUserId());
+            UserSummary author = findAuthor(updatedPost.getUserId());
 
-            // Send notification to partner about post update
-            notificationService.sendPostUpdatedNotification(updatedPost);
+            // Notify partner about post update after commit
+            eventPublisher.publishEvent(new PostEvent(PostEvent.Kind.UPDATED, postId, updatedPost.getUserId(), updatedPost.getPreview()));
             
             // Load comment information for updated post
-            List<Long> commentIds = commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
-                    .map(comment -> comment.getCommentId())
-                    .collect(Collectors.toList());
-            int commentsCount = (int) commentRepository.countByPostId(postId);
+            List<Long> commentIds = loadPostCommentIds(List.of(postId)).getOrDefault(postId, new ArrayList<>());
             
             log.info("Post updated successfully: {} (content type: {})", 
                     postId, updatedPost.hasRichTextContent() ? "rich_text" : "plain_text");
-            return BeanUtils.toPostResponse(updatedPost, author, commentIds, commentsCount);
+            return BeanUtils.toPostResponse(updatedPost, author, commentIds);
         } else {
             log.warn("Update request for post {} has invalid or empty content. No changes made.", postId);
             // If content is invalid, return the current state of the post without making changes
-            User author = findUserById(post.getUserId());
-            List<Long> commentIds = commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
-                .map(comment -> comment.getCommentId())
-                .collect(Collectors.toList());
-            int commentsCount = (int) commentRepository.countByPostId(postId);
-            return BeanUtils.toPostResponse(post, author, commentIds, commentsCount);
+            UserSummary author = findAuthor(post.getUserId());
+            List<Long> commentIds = loadPostCommentIds(List.of(postId)).getOrDefault(postId, new ArrayList<>());
+            return BeanUtils.toPostResponse(post, author, commentIds);
         }
     }
     
@@ -294,8 +385,8 @@ public class PostService {
             throw new RuntimeException(ResponseCode.PERMISSION_DENIED.getMessage());
         }
         
-        // Send notification to partner before deleting
-        notificationService.sendPostDeletedNotification(post);
+        // Notify partner about deletion after commit
+        eventPublisher.publishEvent(new PostEvent(PostEvent.Kind.DELETED, postId, post.getUserId(), null));
         
         // Delete associated comments first
         commentRepository.deleteByPostId(postId);
@@ -315,6 +406,7 @@ public class PostService {
      * @param size page size
      * @return page response of posts
      */
+    @Transactional(readOnly = true)
     public PageResponse<PostResponse> getPostsByUserId(Long userId, Long currentUserId, 
                                                       Integer page, Integer size) {
         if (userId == null || currentUserId == null) {
@@ -341,23 +433,7 @@ public class PostService {
         Pageable pageable = PageRequest.of(page, size);
         Page<Post> postPage = postRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
         
-        User author = findUserById(userId);
-        
-        // Batch load comment information for all posts
-        List<Long> postIds = postPage.getContent().stream()
-                .map(Post::getPostId)
-                .collect(Collectors.toList());
-        
-        Map<Long, List<Long>> postCommentIdsMap = loadPostCommentIds(postIds);
-        Map<Long, Integer> postCommentsCountMap = loadPostCommentsCount(postIds);
-        
-        // Convert to response DTOs
-        Page<PostResponse> responsePage = postPage.map(post -> 
-                BeanUtils.toPostResponse(post, author,
-                        postCommentIdsMap.get(post.getPostId()),
-                        postCommentsCountMap.get(post.getPostId())));
-        
-        return PageResponse.of(responsePage);
+        return PageResponse.of(toPostResponsePage(postPage, 0));
     }
     
     /**
@@ -367,6 +443,7 @@ public class PostService {
      * @return post entity
      * @throws RuntimeException if post not found
      */
+    @Transactional(readOnly = true)
     public Post findPostById(Long postId) {
         if (postId == null) {
             throw new IllegalArgumentException("Post ID cannot be null");
@@ -381,23 +458,23 @@ public class PostService {
     }
     
     /**
-     * Find user by ID (internal method)
+     * Find author summary by user ID (internal method)
      * 
      * @param userId user ID
-     * @return user entity
+     * @return author summary
      * @throws RuntimeException if user not found
      */
-    private User findUserById(Long userId) {
+    private UserSummary findAuthor(Long userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
         
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
+        UserSummary author = authorSummaryService.getSummary(userId);
+        if (author == null) {
             throw new RuntimeException(ResponseCode.USER_NOT_FOUND.getMessage());
         }
         
-        return userOpt.get();
+        return author;
     }
     
     /**
@@ -418,59 +495,158 @@ public class PostService {
     }
     
     /**
-     * Load users map for batch loading
+     * Convert a page of posts to response DTOs
      * 
-     * @param userIds list of user IDs
-     * @return map of user ID to User entity
+     * @param postPage page of posts
+     * @param commentPreview number of latest comments to embed per post (0 for comment IDs)
+     * @return page of post responses
      */
-    private Map<Long, User> loadUsersMap(List<Long> userIds) {
-        Map<Long, User> userMap = new HashMap<>();
-        for (Long userId : userIds) {
-            try {
-                User user = findUserById(userId);
-                userMap.put(userId, user);
-            } catch (Exception e) {
-                log.warn("Failed to load user with ID: {}", userId);
+    private Page<PostResponse> toPostResponsePage(Page<Post> postPage, int commentPreview) {
+        return new PageImpl<>(toPostResponses(postPage.getContent(), commentPreview),
+                postPage.getPageable(), postPage.getTotalElements());
+    }
+    
+    /**
+     * Convert posts to response DTOs
+     * Authors and comment IDs are loaded with one query each (comment counts are stored on the post),
+     * so the number of round trips does not depend on the number of posts
+     * 
+     * @param posts list of posts
+     * @param commentPreview number of latest comments to embed per post (0 for comment IDs)
+     * @return list of post responses in the same order
+     */
+    private List<PostResponse> toPostResponses(List<Post> posts, int commentPreview) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Get all unique user IDs for author loading
+        Set<Long> userIds = new HashSet<>();
+        List<Long> postIds = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            userIds.add(post.getUserId());
+            postIds.add(post.getPostId());
+        }
+        
+        Map<Long, UserSummary> userMap = authorSummaryService.getSummaries(userIds);
+        Map<Long, List<Long>> postCommentIdsMap = commentPreview > 0 ? new HashMap<>() : loadPostCommentIds(postIds);
+        
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            responses.add(BeanUtils.toPostResponse(post, userMap.get(post.getUserId()),
+                    postCommentIdsMap.getOrDefault(post.getPostId(), new ArrayList<>())));
+        }
+        if (commentPreview > 0) {
+            applyCommentPreview(responses, postIds, commentPreview);
+        }
+        return responses;
+    }
+    
+    /**
+     * Convert timeline entries to response DTOs
+     * Author, comment count and preview come from the entry; only the rich content body, which the
+     * read model does not copy, is loaded by primary key in one query
+     * 
+     * @param entries feed entries in timeline order
+     * @param commentPreview number of latest comments to embed per post (0 for comment IDs)
+     * @return list of post responses in the same order
+     */
+    private List<PostResponse> toPostResponsesFromFeed(List<FeedEntry> entries, int commentPreview) {
+        if (entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> postIds = new ArrayList<>(entries.size());
+        for (FeedEntry entry : entries) {
+            postIds.add(entry.getPostId());
+        }
+        
+        Map<Long, Post> postMap = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIds)) {
+            postMap.put(post.getPostId(), post);
+        }
+        Map<Long, List<Long>> postCommentIdsMap = commentPreview > 0 ? new HashMap<>() : loadPostCommentIds(postIds);
+        
+        List<PostResponse> responses = new ArrayList<>(entries.size());
+        for (FeedEntry entry : entries) {
+            Post post = postMap.get(entry.getPostId());
+            if (post == null) {
+                log.warn("Feed entry references missing post {} (owner: {})", entry.getPostId(), entry.getOwnerId());
+                continue;
             }
+            responses.add(BeanUtils.toPostResponse(post, entry,
+                    postCommentIdsMap.getOrDefault(entry.getPostId(), new ArrayList<>())));
+        }
+        if (commentPreview > 0) {
+            applyCommentPreview(responses, postIds, commentPreview);
         }
-        return userMap;
+        return responses;
     }
     
     /**
-     * Load comment IDs for posts in batch
+     * Replace comment ID lists with the latest comments of each post
+     * The latest comments of all posts are selected with one windowed query; posts with more comments
+     * than the preview get a cursor for loading the older ones
      * 
-     * @param postIds list of post IDs
-     * @return map of post ID to list of comment IDs
+     * @param responses post responses to decorate in place
+     * @param postIds IDs of the posts
+     * @param commentPreview number of latest comments per post
      */
-    private Map<Long, List<Long>> loadPostCommentIds(List<Long> postIds) {
-        if (postIds == null || postIds.isEmpty()) {
-            return new HashMap<>();
+    private void applyCommentPreview(List<PostResponse> responses, List<Long> postIds, int commentPreview) {
+        List<Comment> latest = commentRepository.findLatestByPostIdIn(postIds, commentPreview);
+        
+        Set<Long> authorIds = new HashSet<>();
+        for (Comment comment : latest) {
+            authorIds.add(comment.getUserId());
         }
+        Map<Long, UserSummary> authors = authorSummaryService.getSummaries(authorIds);
         
-        return postIds.stream()
-                .collect(Collectors.toMap(
-                        postId -> postId,
-                        postId -> commentRepository.findByPostIdOrderByCreatedAtAsc(postId).stream()
-                                .map(comment -> comment.getCommentId())
-                                .collect(Collectors.toList())
-                ));
+        // Rows arrive grouped by post, oldest first within each post
+        Map<Long, List<Comment>> latestByPost = new HashMap<>();
+        for (Comment comment : latest) {
+            latestByPost.computeIfAbsent(comment.getPostId(), id -> new ArrayList<>()).add(comment);
+        }
+        
+        for (PostResponse response : responses) {
+            List<Comment> comments = latestByPost.getOrDefault(response.getPostId(), new ArrayList<>());
+            List<CommentResponse> previews = new ArrayList<>(comments.size());
+            for (Comment comment : comments) {
+                previews.add(BeanUtils.toCommentResponse(comment, authors.get(comment.getUserId())));
+            }
+            response.setComments(null);
+            response.setLatestComments(previews);
+            if (!comments.isEmpty() && response.getCommentsCount() > comments.size()) {
+                Comment oldest = comments.get(0);
+                response.setCommentsCursor(CursorUtils.encode(oldest.getCreatedAt(), oldest.getCommentId()));
+            }
+        }
     }
     
     /**
-     * Load comments count for posts in batch
+     * Clamp the requested comment preview size (0 disables the preview)
+     */
+    private static int normalizeCommentPreview(Integer commentPreview) {
+        if (commentPreview == null || commentPreview <= 0) {
+            return 0;
+        }
+        return Math.min(commentPreview, MAX_COMMENT_PREVIEW);
+    }
+    
+    /**
+     * Load comment IDs for posts in batch (single query)
      * 
      * @param postIds list of post IDs
-     * @return map of post ID to comment count
+     * @return map of post ID to list of comment IDs
      */
-    private Map<Long, Integer> loadPostCommentsCount(List<Long> postIds) {
+    private Map<Long, List<Long>> loadPostCommentIds(List<Long> postIds) {
         if (postIds == null || postIds.isEmpty()) {
             return new HashMap<>();
         }
         
-        return postIds.stream()
-                .collect(Collectors.toMap(
-                        postId -> postId,
-                        postId -> (int) commentRepository.countByPostId(postId)
-                ));
+        Map<Long, List<Long>> postCommentIdsMap = new HashMap<>();
+        for (PostCommentId row : commentRepository.findCommentIdsByPostIdIn(postIds)) {
+            postCommentIdsMap.computeIfAbsent(row.getPostId(), id -> new ArrayList<>()).add(row.getCommentId());
+        }
+        return postCommentIdsMap;
     }
-} 
\ No newline at end of file
+}
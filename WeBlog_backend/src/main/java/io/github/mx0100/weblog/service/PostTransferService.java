@@ -0,0 +1,393 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.mx0100.weblog.common.ResponseCode;
+import io.github.mx0100.weblog.config.FeedReadModelConfig;
+import io.github.mx0100.weblog.config.PostTransferConfig;
+import io.github.mx0100.weblog.dto.PostArchiveEntry;
+import io.github.mx0100.weblog.dto.RichContent;
+import io.github.mx0100.weblog.dto.response.PostImportResponse;
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.repository.CommentRepository;
+import io.github.mx0100.weblog.repository.PostRepository;
+import io.github.mx0100.weblog.repository.UserRepository;
+import io.github.mx0100.weblog.utils.DeltaTextExtractor;
+import io.github.mx0100.weblog.utils.RichContentConverter;
+import io.github.mx0100.weblog.utils.TimeUtils;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import and export of a user's posts with their comments as NDJSON (one PostArchiveEntry per line)
+ * Import parses the request body incrementally and writes plain JDBC batches, committing every
+ * few hundred rows; export streams both tables from forward-only cursors. Neither direction
+ * holds more than one chunk (import) or one post (export) in memory.
+ * Imported rows bypass domain events, so no notifications are sent for them
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Service
+public class PostTransferService {
+    
+    private static final int MAX_POST_LENGTH = 10000;
+    private static final int MAX_COMMENT_LENGTH = 500;
+    
+    /**
+     * Sequence increment set by V7, equal to the allocationSize of the entity ID generators
+     */
+    static final int ID_BLOCK_SIZE = 50;
+    
+    private static final String NEXT_BLOCKS_SQL =
+            "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+    
+    private static final String INSERT_POST_SQL =
+            "INSERT INTO posts (post_id, user_id, content_rich, preview, word_count, comment_count, created_at, updated_at) " +
+            "VALUES (?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_COMMENT_SQL =
+            "INSERT INTO comments (comment_id, post_id, user_id, content_rich, preview, word_count, created_at, updated_at) " +
+            "VALUES (?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final PartnerCache partnerCache;
+    private final FeedProjector feedProjector;
+    private final FeedCache feedCache;
+    private final FeedReadModelConfig feedReadModelConfig;
+    private final PostTransferConfig postTransferConfig;
+    private final RichContentConverter richContentConverter;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    
+    public PostTransferService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               EntityManager entityManager, PostRepository postRepository,
+                               CommentRepository commentRepository, UserRepository userRepository,
+                               PartnerCache partnerCache, FeedProjector feedProjector, FeedCache feedCache,
+                               FeedReadModelConfig feedReadModelConfig, PostTransferConfig postTransferConfig,
+                               RichContentConverter richContentConverter, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.partnerCache = partnerCache;
+        this.feedProjector = feedProjector;
+        this.feedCache = feedCache;
+        this.feedReadModelConfig = feedReadModelConfig;
+        this.postTransferConfig = postTransferConfig;
+        this.richContentConverter = richContentConverter;
+        this.reader = objectMapper.readerFor(PostArchiveEntry.class);
+        // One flush at the end instead of one per line; the servlet stream buffers in between
+        this.writer = objectMapper.writerFor(PostArchiveEntry.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Import posts and comments for a user
+     * Rows are committed chunk by chunk: when a record is rejected, the chunks before it stay
+     * imported and the error message says how many posts that was
+     * 
+     * @param userId importing user (author of every imported post)
+     * @param input NDJSON body
+     * @return number of imported posts and comments
+     * @throws IOException if the body cannot be read
+     */
+    public PostImportResponse importPosts(Long userId, InputStream input) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException(ResponseCode.USER_NOT_FOUND.getMessage());
+        }
+        
+        Long partnerId = partnerCache.getPartnerId(userId).orElse(null);
+        int chunkRows = Math.max(1, postTransferConfig.getImportChunkSize());
+        List<ImportedPost> chunk = new ArrayList<>();
+        int pendingRows = 0;
+        long record = 0;
+        long importedPosts = 0;
+        long importedComments = 0;
+        
+        try (MappingIterator<PostArchiveEntry> entries = reader.readValues(input)) {
+            while (true) {
+                PostArchiveEntry entry;
+                try {
+                    if (!entries.hasNextValue()) {
+                        break;
+                    }
+                    entry = entries.nextValue();
+                } catch (JsonProcessingException e) {
+                    throw rejected(record + 1, importedPosts, "malformed JSON");
+                }
+                record++;
+                ImportedPost post = validate(entry, record, importedPosts, userId, partnerId);
+                
+                chunk.add(post);
+                pendingRows += 1 + post.comments.size();
+                if (pendingRows >= chunkRows) {
+                    importedComments += writeChunk(userId, chunk);
+                    importedPosts += chunk.size();
+                    chunk.clear();
+                    pendingRows = 0;
+                }
+            }
+            
+            if (!chunk.isEmpty()) {
+                importedComments += writeChunk(userId, chunk);
+                importedPosts += chunk.size();
+            }
+        } finally {
+            if (importedPosts > 0) {
+                refreshTimelines(userId, partnerId);
+            }
+        }
+        
+        log.info("Imported {} posts and {} comments for user {}", importedPosts, importedComments, userId);
+        return new PostImportResponse(importedPosts, importedComments);
+    }
+    
+    /**
+     * Export a user's posts with all their comments, oldest first
+     * Both cursors read from one snapshot so every comment lines up with its post
+     * 
+     * @param userId post author
+     * @param output destination, flushed but not closed
+     * @return number of exported posts
+     * @throws IOException if writing fails (e.g. the client disconnected)
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportPosts(Long userId, OutputStream output) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        
+        long exported = 0;
+        try (Stream<Post> posts = postRepository.streamByUserId(userId);
+             Stream<Comment> comments = commentRepository.streamByPostUserId(userId);
+             JsonGenerator generator = writer.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            
+            Iterator<Comment> commentIterator = comments.iterator();
+            Comment pending = commentIterator.hasNext() ? commentIterator.next() : null;
+            for (Iterator<Post> postIterator = posts.iterator(); postIterator.hasNext(); ) {
+                Post post = postIterator.next();
+                PostArchiveEntry entry = toArchiveEntry(post);
+                while (pending != null && pending.getPostId().equals(post.getPostId())) {
+                    entry.getComments().add(toArchiveComment(pending));
+                    entityManager.detach(pending);
+                    pending = commentIterator.hasNext() ? commentIterator.next() : null;
+                }
+                entityManager.detach(post);
+                
+                writer.writeValue(generator, entry);
+                generator.writeRaw('\n');
+                exported++;
+            }
+            generator.flush();
+        }
+        
+        log.info("Exported {} posts for user {}", exported, userId);
+        return exported;
+    }
+    
+    /**
+     * Write one chunk of posts and their comments in a single transaction
+     * IDs are reserved from the entity sequences up front (one query per table), so both inserts
+     * go out as single JDBC batches without returning generated keys
+     * 
+     * @return number of inserted comments
+     */
+    private int writeChunk(Long userId, List<ImportedPost> chunk) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            int commentTotal = chunk.stream().mapToInt(post -> post.comments.size()).sum();
+            Iterator<Long> postIds = nextIds("posts_post_id_seq", chunk.size()).iterator();
+            Iterator<Long> commentIds = nextIds("comments_comment_id_seq", commentTotal).iterator();
+            LocalDateTime now = TimeUtils.nowUtc();
+            
+            List<Object[]> postRows = new ArrayList<>(chunk.size());
+            List<Object[]> commentRows = new ArrayList<>(commentTotal);
+            for (ImportedPost post : chunk) {
+                Long postId = postIds.next();
+                Timestamp postCreatedAt = Timestamp.valueOf(Objects.requireNonNullElse(post.entry.getCreatedAt(), now));
+                postRows.add(new Object[]{postId, userId, richContentConverter.convertToDatabaseColumn(post.text.getContent()),
+                        post.text.getPreview(), post.text.getWordCount(), post.comments.size(), postCreatedAt, postCreatedAt});
+                
+                for (int i = 0; i < post.comments.size(); i++) {
+                    PostArchiveEntry.CommentEntry comment = post.entry.getComments().get(i);
+                    DeltaTextExtractor.ExtractedText text = post.comments.get(i);
+                    Timestamp commentCreatedAt = Timestamp.valueOf(Objects.requireNonNullElse(comment.getCreatedAt(), now));
+                    commentRows.add(new Object[]{commentIds.next(), postId,
+                            Objects.requireNonNullElse(comment.getAuthorId(), userId),
+                            richContentConverter.convertToDatabaseColumn(text.getContent()),
+                            text.getPreview(), text.getWordCount(), commentCreatedAt, commentCreatedAt});
+                }
+            }
+            
+            jdbcTemplate.batchUpdate(INSERT_POST_SQL, postRows);
+            if (!commentRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_COMMENT_SQL, commentRows);
+            }
+            return commentRows.size();
+        });
+        return inserted != null ? inserted : 0;
+    }
+    
+    /**
+     * Reserve IDs from a sequence the way Hibernate's pooled optimizer does: each nextval
+     * hands out the block (value - 49 .. value), so only one value is drawn per 50 rows
+     */
+    private List<Long> nextIds(String sequence, int count) {
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        return idsFromBlocks(jdbcTemplate.queryForList(NEXT_BLOCKS_SQL, Long.class, sequence, blocks), count);
+    }
+    
+    /**
+     * Expand block upper bounds into the first count IDs; the rest of the last block is left unused
+     * 
+     * @param blockEnds values returned by nextval
+     * @param count number of IDs needed
+     * @return IDs in ascending order within each block
+     */
+    static List<Long> idsFromBlocks(List<Long> blockEnds, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockEnd : blockEnds) {
+            for (long id = blockEnd - ID_BLOCK_SIZE + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        if (ids.size() < count) {
+            throw new IllegalStateException("Sequence returned " + blockEnds.size() + " blocks for " + count + " IDs");
+        }
+        return ids;
+    }
+    
+    /**
+     * Imported rows bypass the feed projection, so rebuild the affected timelines instead
+     */
+    private void refreshTimelines(Long userId, Long partnerId) {
+        if (feedReadModelConfig.isEnabled()) {
+            feedProjector.rebuild(userId);
+            if (partnerId != null) {
+                feedProjector.rebuild(partnerId);
+            }
+        }
+        feedCache.evictTimelineOf(userId);
+    }
+    
+    /**
+     * Check a record and extract the text of the post and its comments
+     */
+    private ImportedPost validate(PostArchiveEntry entry, long record, long importedPosts, Long userId, Long partnerId) {
+        if (entry == null) {
+            throw rejected(record, importedPosts, "empty record");
+        }
+        DeltaTextExtractor.ExtractedText postText = extractValid(entry.getRichContent(), MAX_POST_LENGTH);
+        if (postText == null) {
+            throw rejected(record, importedPosts, "post content is empty, invalid or longer than " + MAX_POST_LENGTH);
+        }
+        if (entry.getComments() == null) {
+            entry.setComments(new ArrayList<>());
+        }
+        if (entry.getComments().size() > postTransferConfig.getImportMaxCommentsPerPost()) {
+            throw rejected(record, importedPosts, "more than " + postTransferConfig.getImportMaxCommentsPerPost() + " comments");
+        }
+        
+        List<DeltaTextExtractor.ExtractedText> commentTexts = new ArrayList<>(entry.getComments().size());
+        for (PostArchiveEntry.CommentEntry comment : entry.getComments()) {
+            DeltaTextExtractor.ExtractedText commentText = comment != null ? extractValid(comment.getRichContent(), MAX_COMMENT_LENGTH) : null;
+            if (commentText == null) {
+                throw rejected(record, importedPosts, "comment content is empty, invalid or longer than " + MAX_COMMENT_LENGTH);
+            }
+            Long authorId = comment.getAuthorId();
+            if (authorId != null && !authorId.equals(userId) && !authorId.equals(partnerId)) {
+                throw rejected(record, importedPosts, "comment author must be the importing user or their partner");
+            }
+            commentTexts.add(commentText);
+        }
+        return new ImportedPost(entry, postText, commentTexts);
+    }
+    
+    /**
+     * Extract server-side plain text; null if the content is missing, invalid, empty or too long
+     */
+    private static DeltaTextExtractor.ExtractedText extractValid(RichContent content, int maxLength) {
+        if (content == null) {
+            return null;
+        }
+        DeltaTextExtractor.ExtractedText text = DeltaTextExtractor.extract(content);
+        RichContent extracted = text.getContent();
+        boolean valid = extracted.isValid()
+                && !extracted.getDisplayText().isEmpty()
+                && extracted.getDisplayText().length() <= maxLength;
+        return valid ? text : null;
+    }
+    
+    private static IllegalArgumentException rejected(long record, long importedPosts, String reason) {
+        return new IllegalArgumentException(String.format(
+                "Import record %d rejected: %s (%d posts already imported)", record, reason, importedPosts));
+    }
+    
+    private static PostArchiveEntry toArchiveEntry(Post post) {
+        PostArchiveEntry entry = new PostArchiveEntry();
+        entry.setPostId(post.getPostId());
+        entry.setAuthorId(post.getUserId());
+        entry.setRichContent(post.getRichContent());
+        entry.setCreatedAt(post.getCreatedAt());
+        return entry;
+    }
+    
+    private static PostArchiveEntry.CommentEntry toArchiveComment(Comment comment) {
+        PostArchiveEntry.CommentEntry entry = new PostArchiveEntry.CommentEntry();
+        entry.setCommentId(comment.getCommentId());
+        entry.setAuthorId(comment.getUserId());
+        entry.setRichContent(comment.getRichContent());
+        entry.setCreatedAt(comment.getCreatedAt());
+        return entry;
+    }
+    
+    /**
+     * Validated import record with the extracted text of the post and of each comment
+     */
+    @AllArgsConstructor
+    private static class ImportedPost {
+        private final PostArchiveEntry entry;
+        private final DeltaTextExtractor.ExtractedText text;
+        private final List<DeltaTextExtractor.ExtractedText> comments;
+    }
+}
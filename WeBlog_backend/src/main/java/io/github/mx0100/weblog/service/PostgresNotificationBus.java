@@ -0,0 +1,271 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.config.ClusterConfig;
+import io.github.mx0100.weblog.dto.ClusterMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification bus on PostgreSQL LISTEN/NOTIFY
+ * Each node listens on its own channel and the broadcast channel over a dedicated connection
+ * outside the pool. Publishing is queued and done by a single thread, one pg_notify round trip
+ * per batch, so callers never block on the database and a node's messages keep their order
+ * 
+ * @author mx0100
+ */
+@Slf4j
+public class PostgresNotificationBus implements NotificationBus, AutoCloseable {
+    
+    private static final String BROADCAST_CHANNEL = "weblog_cluster";
+    
+    private static final String NODE_CHANNEL_PREFIX = "weblog_node_";
+    
+    /**
+     * Rows are notified in array order, which is the order they were queued
+     */
+    private static final String NOTIFY_SQL =
+            "SELECT pg_notify(n.channel, n.payload) FROM unnest(?::text[], ?::text[]) AS n(channel, payload)";
+    
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    
+    private static final int PUBLISH_BATCH_SIZE = 100;
+    
+    private static final int POLL_TIMEOUT_MS = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSourceProperties;
+    private final ClusterConfig clusterConfig;
+    
+    private final BlockingQueue<Outgoing> outgoing;
+    private final AtomicLong sequence = new AtomicLong();
+    private final CountDownLatch listening = new CountDownLatch(1);
+    
+    private final Counter published;
+    private final Counter received;
+    private final Counter dropped;
+    
+    private volatile boolean running;
+    private String nodeId;
+    private Listener listener;
+    private Thread listenerThread;
+    private Thread publisherThread;
+    
+    public PostgresNotificationBus(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   DataSourceProperties dataSourceProperties,
+                                   ClusterConfig clusterConfig,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+        this.clusterConfig = clusterConfig;
+        this.outgoing = new LinkedBlockingQueue<>(clusterConfig.getPublishQueueCapacity());
+        this.published = Counter.builder("weblog.cluster.messages")
+                .description("Messages exchanged with other nodes")
+                .tag("direction", "out")
+                .register(meterRegistry);
+        this.received = Counter.builder("weblog.cluster.messages")
+                .description("Messages exchanged with other nodes")
+                .tag("direction", "in")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("weblog.cluster.messages.dropped")
+                .description("Messages not published because the queue was full or the database unavailable")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public void start(String nodeId, Listener listener) {
+        this.nodeId = nodeId;
+        this.listener = listener;
+        this.running = true;
+        
+        listenerThread = new Thread(this::listen, "notification-bus-listen");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        publisherThread = new Thread(this::publish, "notification-bus-publish");
+        publisherThread.setDaemon(true);
+        publisherThread.start();
+        
+        // Replies to this node's JOIN must not arrive before it listens
+        try {
+            if (!listening.await(clusterConfig.getReconnectDelayMs() * 5, TimeUnit.MILLISECONDS)) {
+                log.warn("Notification bus not listening yet, node {} starts without cluster presence", nodeId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @Override
+    public void send(String nodeId, ClusterMessage message) {
+        enqueue(NODE_CHANNEL_PREFIX + nodeId, message);
+    }
+    
+    @Override
+    public void broadcast(ClusterMessage message) {
+        enqueue(BROADCAST_CHANNEL, message);
+    }
+    
+    private void enqueue(String channel, ClusterMessage message) {
+        message.setSeq(sequence.incrementAndGet());
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cluster message " + message.getType(), e);
+        }
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            dropped.increment();
+            log.error("Cluster message {} exceeds the NOTIFY payload limit, dropping", message.getType());
+            return;
+        }
+        if (!outgoing.offer(new Outgoing(channel, payload))) {
+            dropped.increment();
+            log.warn("Notification bus publish queue full, dropping {}", message.getType());
+        }
+    }
+    
+    private void publish() {
+        List<Outgoing> batch = new ArrayList<>(PUBLISH_BATCH_SIZE);
+        while (running || !outgoing.isEmpty()) {
+            try {
+                Outgoing first = outgoing.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                outgoing.drainTo(batch, PUBLISH_BATCH_SIZE - 1);
+                notifyBatch(batch);
+                published.increment(batch.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException e) {
+                dropped.increment(batch.size());
+                log.warn("Failed to publish {} cluster messages: {}", batch.size(), e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void notifyBatch(List<Outgoing> batch) {
+        String[] channels = new String[batch.size()];
+        String[] payloads = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            channels[i] = batch.get(i).channel();
+            payloads[i] = batch.get(i).payload();
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(NOTIFY_SQL);
+            ps.setArray(1, connection.createArrayOf("text", channels));
+            ps.setArray(2, connection.createArrayOf("text", payloads));
+            return ps;
+        }, rs -> {
+        });
+    }
+    
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + BROADCAST_CHANNEL);
+                    statement.execute("LISTEN " + NODE_CHANNEL_PREFIX + nodeId);
+                }
+                log.info("Notification bus listening as node {}", nodeId);
+                listening.countDown();
+                if (reconnect) {
+                    listener.onReconnect();
+                }
+                
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification bus connection lost, reconnecting in {} ms: {}", clusterConfig.getReconnectDelayMs(), e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(clusterConfig.getReconnectDelayMs());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void receive(String payload) {
+        try {
+            ClusterMessage message = objectMapper.readValue(payload, ClusterMessage.class);
+            // Broadcasts also reach the publishing node
+            if (nodeId.equals(message.getNode())) {
+                return;
+            }
+            received.increment();
+            listener.onMessage(message);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cluster message: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to handle cluster message", e);
+        }
+    }
+    
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("ApplicationName", "weblog-bus-" + nodeId);
+        return properties;
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        // The publisher drains what is queued (e.g. LEAVE) before it stops
+        if (publisherThread != null) {
+            publisherThread.join(TimeUnit.SECONDS.toMillis(2));
+        }
+        if (listenerThread != null) {
+            listenerThread.join(POLL_TIMEOUT_MS * 2L);
+        }
+    }
+    
+    private record Outgoing(String channel, String payload) {
+    }
+}
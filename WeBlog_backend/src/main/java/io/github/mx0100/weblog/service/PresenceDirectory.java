@@ -0,0 +1,246 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.config.ClusterConfig;
+import io.github.mx0100.weblog.dto.ClusterMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local view of which nodes hold WebSocket sessions for which users
+ * Each node announces its own users when their first session opens and after their last one
+ * closes, and answers a JOIN with the full list; heartbeats let a crashed node's users expire.
+ * Announcements are published inside the per-user map update, so they leave in the order the
+ * changes happened. The view may briefly lag behind: a notification missed that way is still
+ * in the outbox and is replayed when the client reconnects with its last seen ID
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Component
+public class PresenceDirectory implements AutoCloseable {
+    
+    private final NotificationBus bus;
+    private final ClusterConfig clusterConfig;
+    private final String nodeId;
+    
+    // User ID -> open sessions on this node
+    private final ConcurrentHashMap<Long, Integer> localSessions = new ConcurrentHashMap<>();
+    
+    // User ID -> other nodes holding sessions of the user
+    private final ConcurrentHashMap<Long, Set<String>> remoteNodes = new ConcurrentHashMap<>();
+    
+    // Node ID -> System.nanoTime() of its last message
+    private final ConcurrentHashMap<String, Long> lastSeen = new ConcurrentHashMap<>();
+    
+    private final ScheduledExecutorService heartbeat;
+    
+    public PresenceDirectory(NotificationBus bus, ClusterConfig clusterConfig, MeterRegistry meterRegistry) {
+        this.bus = bus;
+        this.clusterConfig = clusterConfig;
+        this.nodeId = clusterConfig.getNodeId();
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("weblog.cluster.nodes", lastSeen, Map::size)
+                .description("Other nodes currently sending heartbeats")
+                .register(meterRegistry);
+        Gauge.builder("weblog.cluster.remote.users", remoteNodes, Map::size)
+                .description("Users with WebSocket sessions on other nodes")
+                .register(meterRegistry);
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Announce this node and start heartbeats; called once the bus is listening
+     */
+    public void join() {
+        bus.broadcast(ClusterMessage.of(ClusterMessage.Type.JOIN, nodeId));
+        long interval = clusterConfig.getHeartbeatIntervalMs();
+        heartbeat.scheduleWithFixedDelay(this::beat, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("🌐 Node {} joined the notification cluster", nodeId);
+    }
+    
+    /**
+     * Rebuild the view after messages may have been missed
+     */
+    public void rejoin() {
+        remoteNodes.clear();
+        lastSeen.clear();
+        bus.broadcast(ClusterMessage.of(ClusterMessage.Type.JOIN, nodeId));
+        announce(null, ClusterMessage.Type.ONLINE, new ArrayList<>(localSessions.keySet()));
+    }
+    
+    /**
+     * Announce leaving so other nodes stop routing to this one
+     */
+    public void leave() {
+        heartbeat.shutdownNow();
+        bus.broadcast(ClusterMessage.of(ClusterMessage.Type.LEAVE, nodeId));
+    }
+    
+    /**
+     * Record a WebSocket session opened on this node
+     * 
+     * @param userId user ID
+     */
+    public void sessionOpened(Long userId) {
+        localSessions.compute(userId, (id, count) -> {
+            if (count == null) {
+                announce(null, ClusterMessage.Type.ONLINE, List.of(userId));
+                return 1;
+            }
+            return count + 1;
+        });
+    }
+    
+    /**
+     * Record a WebSocket session closed on this node
+     * 
+     * @param userId user ID
+     */
+    public void sessionClosed(Long userId) {
+        localSessions.computeIfPresent(userId, (id, count) -> {
+            if (count == 1) {
+                announce(null, ClusterMessage.Type.OFFLINE, List.of(userId));
+                return null;
+            }
+            return count - 1;
+        });
+    }
+    
+    /**
+     * Other nodes that hold sessions of a user
+     * 
+     * @param userId user ID
+     * @return node IDs (empty if the user is not connected elsewhere)
+     */
+    public Set<String> remoteNodesOf(Long userId) {
+        Set<String> nodes = remoteNodes.get(userId);
+        return nodes != null ? nodes : Collections.emptySet();
+    }
+    
+    /**
+     * Tell a node that sent a notification for a user this node no longer holds
+     * 
+     * @param targetNodeId node with the stale entry
+     * @param userId user ID
+     */
+    public void correct(String targetNodeId, Long userId) {
+        if (!localSessions.containsKey(userId)) {
+            announce(targetNodeId, ClusterMessage.Type.OFFLINE, List.of(userId));
+        }
+    }
+    
+    /**
+     * Apply a presence message from another node
+     * 
+     * @param message JOIN, LEAVE, HEARTBEAT, ONLINE or OFFLINE message
+     */
+    public void apply(ClusterMessage message) {
+        String node = message.getNode();
+        boolean known = lastSeen.put(node, System.nanoTime()) != null;
+        
+        switch (message.getType()) {
+            case ClusterMessage.Type.JOIN -> {
+                // A node that (re)joins announces its own users again
+                removeNode(node);
+                announce(node, ClusterMessage.Type.ONLINE, new ArrayList<>(localSessions.keySet()));
+            }
+            case ClusterMessage.Type.LEAVE -> {
+                removeNode(node);
+                log.info("🌐 Node {} left the notification cluster", node);
+            }
+            case ClusterMessage.Type.HEARTBEAT -> {
+                if (!known) {
+                    // Dropped after missed heartbeats; both sides resend their users
+                    log.info("🌐 Node {} is back, resynchronizing presence", node);
+                    bus.send(node, ClusterMessage.of(ClusterMessage.Type.JOIN, nodeId));
+                    announce(node, ClusterMessage.Type.ONLINE, new ArrayList<>(localSessions.keySet()));
+                }
+            }
+            case ClusterMessage.Type.ONLINE -> {
+                for (Long userId : message.getUserIds()) {
+                    remoteNodes.compute(userId, (id, nodes) -> {
+                        Set<String> userNodes = nodes != null ? nodes : ConcurrentHashMap.newKeySet();
+                        userNodes.add(node);
+                        return userNodes;
+                    });
+                }
+            }
+            case ClusterMessage.Type.OFFLINE -> {
+                for (Long userId : message.getUserIds()) {
+                    remoteNodes.computeIfPresent(userId, (id, nodes) -> {
+                        nodes.remove(node);
+                        return nodes.isEmpty() ? null : nodes;
+                    });
+                }
+            }
+            default -> log.debug("Ignoring cluster message {} from node {}", message.getType(), node);
+        }
+    }
+    
+    private void beat() {
+        try {
+            bus.broadcast(ClusterMessage.of(ClusterMessage.Type.HEARTBEAT, nodeId));
+            
+            long expiredBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(3 * clusterConfig.getHeartbeatIntervalMs());
+            lastSeen.forEach((node, seenAt) -> {
+                if (seenAt - expiredBefore < 0 && lastSeen.remove(node, seenAt)) {
+                    removeNode(node);
+                    log.warn("🌐 Node {} missed its heartbeats, dropping its users", node);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Presence heartbeat failed", e);
+        }
+    }
+    
+    private void removeNode(String node) {
+        for (Long userId : remoteNodes.keySet()) {
+            remoteNodes.computeIfPresent(userId, (id, nodes) -> {
+                nodes.remove(node);
+                return nodes.isEmpty() ? null : nodes;
+            });
+        }
+    }
+    
+    /**
+     * Publish user IDs in chunks that fit a bus message
+     * 
+     * @param targetNodeId target node, or null to broadcast
+     */
+    private void announce(String targetNodeId, String type, List<Long> userIds) {
+        int chunk = clusterConfig.getMaxIdsPerMessage();
+        for (int from = 0; from < userIds.size(); from += chunk) {
+            ClusterMessage message = ClusterMessage.of(type, nodeId);
+            message.setUserIds(new ArrayList<>(userIds.subList(from, Math.min(from + chunk, userIds.size()))));
+            if (targetNodeId == null) {
+                bus.broadcast(message);
+            } else {
+                bus.send(targetNodeId, message);
+            }
+        }
+    }
+    
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.mx0100.weblog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbound sender for a single WebSocket session
+ * Messages are queued and written by a shared executor, at most one drain per session at a time,
+ * so callers never block on the network and concurrent sends cannot interleave
+ * While a reconnect replay is running, live messages are held back and released afterwards
+ * without the ones the replay already covered
+ * Duplicates are detected by exact notification ID: IDs drawn on different nodes commit out of
+ * order, so a lower ID may legitimately arrive after a higher one
+ * 
+ * @author mx0100
+ */
+@Slf4j
+public class QueuedSessionSender {
+    
+    /**
+     * Recently sent notification IDs remembered per session; covers a full replay plus the
+     * live messages racing it
+     */
+    static final int SENT_ID_LIMIT = 1000;
+    
+    private final ConcurrentWebSocketSessionDecorator session;
+    private final BlockingQueue<QueuedMessage> queue;
+    private final Executor executor;
+    private final Metrics metrics;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    
+    // A lock rather than a monitor: on JDK 21 a virtual thread blocked on a contended monitor pins its carrier
+    private final ReentrantLock replayLock = new ReentrantLock();
+    
+    // Live messages held while replaying, null once replay has finished
+    private List<HeldMessage> held = new ArrayList<>();
+    
+    // Notification IDs handed to this session, oldest first
+    private final LinkedHashSet<Long> sentIds = new LinkedHashSet<>();
+    
+    public QueuedSessionSender(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit,
+                               int queueCapacity, Executor executor, Metrics metrics) {
+        this.session = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimit, bufferSizeLimit);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Queue a message for delivery
+     * 
+     * @param message text message
+     * @param notificationId outbox ID of the message, or null if it was not stored
+     * @return false if the queue is full, the session is closed or the message was already sent
+     */
+    public boolean enqueue(TextMessage message, Long notificationId) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        replayLock.lock();
+        try {
+            if (held != null) {
+                if (held.size() >= queueCapacity()) {
+                    metrics.queueFull.increment();
+                    return false;
+                }
+                held.add(new HeldMessage(message, notificationId));
+                return true;
+            }
+            if (notificationId != null && !markSent(notificationId)) {
+                return false;
+            }
+        } finally {
+            replayLock.unlock();
+        }
+        return offer(message);
+    }
+    
+    /**
+     * Send a stored notification directly while live messages are held
+     * Must only be called from the replaying thread before {@link #finishReplay()}
+     * 
+     * @param message text message
+     * @param notificationId outbox ID of the message
+     * @throws IOException if the send fails
+     */
+    public void replay(TextMessage message, long notificationId) throws IOException {
+        replayLock.lock();
+        try {
+            if (!markSent(notificationId)) {
+                return;
+            }
+        } finally {
+            replayLock.unlock();
+        }
+        session.sendMessage(message);
+    }
+    
+    /**
+     * Release live messages held during replay, skipping those already replayed
+     */
+    public void finishReplay() {
+        List<HeldMessage> released;
+        replayLock.lock();
+        try {
+            released = held;
+            held = null;
+            if (released == null) {
+                return;
+            }
+            released.removeIf(h -> h.notificationId != null && !markSent(h.notificationId));
+        } finally {
+            replayLock.unlock();
+        }
+        for (HeldMessage h : released) {
+            offer(h.message);
+        }
+    }
+    
+    /**
+     * Remember a notification ID, forgetting the oldest beyond the limit; caller holds the replay lock
+     * 
+     * @return false if the ID was already sent
+     */
+    private boolean markSent(long notificationId) {
+        if (!sentIds.add(notificationId)) {
+            return false;
+        }
+        if (sentIds.size() > SENT_ID_LIMIT) {
+            Iterator<Long> oldest = sentIds.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+    
+    private boolean offer(TextMessage message) {
+        if (!queue.offer(new QueuedMessage(message, System.nanoTime()))) {
+            metrics.queueFull.increment();
+            log.warn("WebSocket send queue full, dropping message for session {}", session.getId());
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+    
+    private int queueCapacity() {
+        return queue.remainingCapacity() + queue.size();
+    }
+    
+    public String getId() {
+        return session.getId();
+    }
+    
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+    
+    /**
+     * Messages waiting to be written, including live messages held during a replay
+     */
+    public int getQueueDepth() {
+        replayLock.lock();
+        try {
+            return queue.size() + (held != null ? held.size() : 0);
+        } finally {
+            replayLock.unlock();
+        }
+    }
+    
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                log.warn("WebSocket sender executor rejected drain for session {}", session.getId());
+            }
+        }
+    }
+    
+    private void drain() {
+        try {
+            QueuedMessage message;
+            while ((message = queue.poll()) != null) {
+                if (!session.isOpen()) {
+                    metrics.closed.increment(1 + queue.size());
+                    queue.clear();
+                    return;
+                }
+                try {
+                    session.sendMessage(message.message);
+                    metrics.sendLatency.record(System.nanoTime() - message.enqueuedAt, TimeUnit.NANOSECONDS);
+                } catch (IOException | RuntimeException e) {
+                    // Send time or buffer limit exceeded, or the transport failed
+                    log.warn("Failed to send WebSocket message, closing session {}", session.getId(), e);
+                    metrics.sendFailed.increment(1 + queue.size());
+                    queue.clear();
+                    closeQuietly();
+                    return;
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A message may have been queued after the last poll but before the flag was cleared
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+    
+    private void closeQuietly() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Error closing WebSocket session {}", session.getId(), e);
+        }
+    }
+    
+    private record HeldMessage(TextMessage message, Long notificationId) {
+    }
+    
+    private record QueuedMessage(TextMessage message, long enqueuedAt) {
+    }
+    
+    /**
+     * Meters shared by all senders
+     * Send latency runs from enqueue to the completed write, so it includes queueing behind
+     * earlier messages and a slow client; drops are tagged with their reason
+     */
+    public static class Metrics {
+        
+        private final Timer sendLatency;
+        private final Counter queueFull;
+        private final Counter sendFailed;
+        private final Counter closed;
+        
+        public Metrics(MeterRegistry meterRegistry) {
+            this.sendLatency = Timer.builder("weblog.websocket.send.latency")
+                    .description("Time from queueing a WebSocket message to writing it")
+                    .register(meterRegistry);
+            this.queueFull = dropped(meterRegistry, "queue_full");
+            this.sendFailed = dropped(meterRegistry, "send_failed");
+            this.closed = dropped(meterRegistry, "closed");
+        }
+        
+        private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+            return Counter.builder("weblog.websocket.messages.dropped")
+                    .description("WebSocket messages discarded before they were written")
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
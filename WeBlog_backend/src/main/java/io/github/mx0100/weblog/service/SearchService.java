@@ -0,0 +1,104 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.dto.response.PageResponse;
+import io.github.mx0100.weblog.dto.response.SearchResultResponse;
+import io.github.mx0100.weblog.repository.SearchRepository;
+import io.github.mx0100.weblog.repository.projection.SearchHit;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.github.mx0100.weblog.utils.BeanUtils;
+import io.github.mx0100.weblog.utils.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search service
+ * Searches the posts the current user can see (own and partner's) and the comments on them
+ * 
+ * @author mx0100
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+    
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+    
+    private final SearchRepository searchRepository;
+    private final PartnerCache partnerCache;
+    private final AuthorSummaryService authorSummaryService;
+    
+    /**
+     * Search posts and comments, best matches first
+     * 
+     * @param currentUserId current user ID
+     * @param query web-search style query
+     * @param cursor ranked cursor from the previous slice (null or empty for the first slice)
+     * @param size slice size (default: 10, max: 50)
+     * @return slice response of results with the next cursor
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<SearchResultResponse> search(Long currentUserId, String query, String cursor, Integer size) {
+        if (currentUserId == null) {
+            throw new IllegalArgumentException("Current user ID cannot be null");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query cannot exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        
+        int sliceSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        CursorUtils.RankedCursor after = CursorUtils.decodeRanked(cursor);
+        
+        log.info("Searching for user {} - cursor: {}, size: {}", currentUserId, cursor, sliceSize);
+        
+        // Visible authors: self + partner if coupled
+        List<Long> visibleUserIds = new ArrayList<>(2);
+        visibleUserIds.add(currentUserId);
+        partnerCache.getPartnerId(currentUserId).ifPresent(visibleUserIds::add);
+        
+        // Fetch one extra row to detect whether another slice follows
+        List<SearchHit> hits = searchRepository.search(query.trim(), visibleUserIds, after, sliceSize + 1);
+        boolean hasNext = hits.size() > sliceSize;
+        if (hasNext) {
+            hits = hits.subList(0, sliceSize);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            SearchHit last = hits.get(hits.size() - 1);
+            nextCursor = CursorUtils.encodeRanked(last.getRank(), last.getKind(), last.getId());
+        }
+        
+        Map<Long, UserSummary> authors = authorSummaryService.getSummaries(
+                hits.stream().map(SearchHit::getUserId).collect(Collectors.toSet()));
+        List<SearchResultResponse> results = hits.stream()
+                .map(hit -> BeanUtils.toSearchResultResponse(hit, authors.get(hit.getUserId()), renderHighlight(hit.getHeadline())))
+                .collect(Collectors.toList());
+        
+        return PageResponse.ofSlice(results, sliceSize, after == null, nextCursor);
+    }
+    
+    /**
+     * Escape the headline text, then turn the match markers into mark tags
+     */
+    private static String renderHighlight(String headline) {
+        if (headline == null) {
+            return "";
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(SearchRepository.MATCH_START), "<mark>")
+                .replace(String.valueOf(SearchRepository.MATCH_END), "</mark>");
+    }
+}
@@ -2,12 +2,14 @@ package io.github.mx0100.weblog.service;
 
 import io.github.mx0100.weblog.entity.User;
 import io.github.mx0100.weblog.entity.UserRelationship;
+import io.github.mx0100.weblog.event.PairRequestEvent;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
 import io.github.mx0100.weblog.repository.UserRelationshipRepository;
 import io.github.mx0100.weblog.repository.UserRepository;
 import io.github.mx0100.weblog.utils.TimeUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,20 +23,22 @@ import java.util.Optional;
  */
 @Slf4j
 @Service
+@Timed(value = "weblog.service.duration", description = "Service method latency")
 public class UserRelationshipService {
     
     private final UserRelationshipRepository userRelationshipRepository;
     private final UserRepository userRepository;
+    private final PartnerCache partnerCache;
+    private final ApplicationEventPublisher eventPublisher;
     
-    @Autowired
-    @Lazy
-    private NotificationService notificationService;
-    
-    // Manual constructor to inject only non-lazy dependencies
     public UserRelationshipService(UserRelationshipRepository userRelationshipRepository, 
-                                   UserRepository userRepository) {
+                                   UserRepository userRepository,
+                                   PartnerCache partnerCache,
+                                   ApplicationEventPublisher eventPublisher) {
         this.userRelationshipRepository = userRelationshipRepository;
         this.userRepository = userRepository;
+        this.partnerCache = partnerCache;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -43,9 +47,9 @@ public class UserRelationshipService {
      * @param userId user ID
      * @return partner user ID or null if single
      */
+    @Transactional(readOnly = true)
     public Optional<Long> getPartnerUserId(Long userId) {
-        return userRelationshipRepository.findActiveRelationshipByUserId(userId)
-                .map(relationship -> relationship.getOtherUserId(userId));
+        return partnerCache.getPartnerId(userId);
     }
     
     /**
@@ -54,6 +58,7 @@ public class UserRelationshipService {
      * @param userId user ID
      * @return relationship status info
      */
+    @Transactional(readOnly = true)
     public RelationshipStatusInfo getRelationshipStatus(Long userId) {
         Optional<UserRelationship> relationship = userRelationshipRepository.findActiveRelationshipByUserId(userId);
         
@@ -168,8 +173,8 @@ public class UserRelationshipService {
         
         UserRelationship savedRelationship = userRelationshipRepository.save(relationship);
         
-        // Send notification to target user
-        notificationService.sendPairRequestNotification(fromUserId, toUserId);
+        // Notify target user after commit
+        eventPublisher.publishEvent(new PairRequestEvent(PairRequestEvent.Kind.REQUESTED, fromUserId, toUserId));
         
         return savedRelationship;
     }
@@ -222,8 +227,8 @@ public class UserRelationshipService {
         
         log.info("Accepted pair request: user {} accepted request from user {}", userId, requestUserId);
         
-        // Send notification to requesting user
-        notificationService.sendPairRequestAcceptedNotification(requestUserId, userId);
+        // Partner cache and requesting user are updated after commit
+        eventPublisher.publishEvent(new RelationshipChangedEvent(userId, requestUserId, true));
         
         return savedRelationship;
     }
@@ -275,8 +280,8 @@ public class UserRelationshipService {
         
         log.info("Rejected pair request: user {} rejected request from user {}", userId, requestUserId);
         
-        // Send notification to requesting user
-        notificationService.sendPairRequestRejectedNotification(requestUserId, userId);
+        // Notify requesting user after commit
+        eventPublisher.publishEvent(new PairRequestEvent(PairRequestEvent.Kind.REJECTED, userId, requestUserId));
     }
     
     /**
@@ -301,8 +306,8 @@ public class UserRelationshipService {
         
         log.info("Ended relationship between users {} and {}", userId, partnerId);
         
-        // Send notification to both users about relationship ended
-        notificationService.sendRelationshipEndedNotification(userId, partnerId);
+        // Partner cache and both users are updated after commit
+        eventPublisher.publishEvent(new RelationshipChangedEvent(userId, partnerId, false));
     }
     
     /**
@@ -311,6 +316,7 @@ public class UserRelationshipService {
      * @param userId user ID
      * @return list of relationship history
      */
+    @Transactional(readOnly = true)
     public List<UserRelationship> getRelationshipHistory(Long userId) {
         return userRelationshipRepository.findAllRelationshipsByUserId(userId);
     }
@@ -321,6 +327,7 @@ public class UserRelationshipService {
      * @param userId user ID
      * @return list of pending relationships where this user is the target
      */
+    @Transactional(readOnly = true)
     public List<UserRelationship> getPendingPairRequests(Long userId) {
         return userRelationshipRepository.findPendingRelationshipsByTargetUserId(userId);
     }
@@ -331,6 +338,7 @@ public class UserRelationshipService {
      * @param userId user ID
      * @return list of pending relationships where this user is the requester
      */
+    @Transactional(readOnly = true)
     public List<UserRelationship> getSentPairRequests(Long userId) {
         return userRelationshipRepository.findPendingRelationshipsByRequesterUserId(userId);
     }
@@ -342,8 +350,9 @@ public class UserRelationshipService {
      * @param userId2 second user ID
      * @return true if they are coupled
      */
+    @Transactional(readOnly = true)
     public boolean areUsersCoupled(Long userId1, Long userId2) {
-        return userRelationshipRepository.existsActiveRelationshipBetweenUsers(userId1, userId2);
+        return partnerCache.areCoupled(userId1, userId2);
     }
     
     /**
@@ -353,6 +362,7 @@ public class UserRelationshipService {
      * @param contentOwnerUserId owner of the content
      * @return true if access is allowed
      */
+    @Transactional(readOnly = true)
     public boolean canUserAccessContent(Long viewerUserId, Long contentOwnerUserId) {
         // User can always access their own content
         if (viewerUserId.equals(contentOwnerUserId)) {
@@ -7,12 +7,15 @@ import io.github.mx0100.weblog.dto.request.UserUpdateRequest;
 import io.github.mx0100.weblog.dto.response.LoginResponse;
 import io.github.mx0100.weblog.dto.response.UserResponse;
 import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.event.UserProfileUpdatedEvent;
 import io.github.mx0100.weblog.repository.UserRepository;
 import io.github.mx0100.weblog.utils.BeanUtils;
 import io.github.mx0100.weblog.utils.JwtUtils;
-import io.github.mx0100.weblog.utils.PasswordUtils;
+import io.github.mx0100.weblog.utils.TimeUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +35,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final JwtUtils jwtUtils;
     private final UserRelationshipService userRelationshipService;
+    private final PasswordHashingService passwordHashingService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Register new user
@@ -40,7 +45,6 @@ public class UserService {
      * @return user response
      * @throws RuntimeException if username already exists
      */
-    @Transactional
     public UserResponse register(UserRegisterRequest request) {
         log.info("Registering user with username: {}", request.getUsername());
         
@@ -49,10 +53,14 @@ public class UserService {
             log.warn("Username already exists: {}", request.getUsername());
             throw new RuntimeException(ResponseCode.USERNAME_EXISTS.getMessage());
         }
+        // Not transactional: no connection is held while waiting for BCrypt, and the
+        // unique constraint on username still rejects a concurrent registration
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
+        
         // Create new user entity;
         User user = new User();
         user.setUsername(request.getUsername());
-        user.setPassword(PasswordUtils.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setNickname(request.getNickname());
         user.setGender(request.getGender());
         
@@ -65,7 +73,13 @@ public class UserService {
         }
         
         // Save user to database
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Username taken concurrently: {}", request.getUsername());
+            throw new RuntimeException(ResponseCode.USERNAME_EXISTS.getMessage());
+        }
         log.info("User registered successfully with ID: {}", savedUser.getUserId());
         
         return BeanUtils.toUserResponse(savedUser, userRelationshipService.getRelationshipStatus(savedUser.getUserId()));
@@ -92,11 +106,14 @@ public class UserService {
         User user = userOpt.get();
         
         // Verify password
-        if (!PasswordUtils.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             log.warn("Invalid password for user: {}", username);
             throw new RuntimeException(ResponseCode.INVALID_PASSWORD.getMessage());
         }
         
+        // Re-hash with the configured work factor if the stored hash is weaker
+        upgradePasswordHash(user, password);
+        
         // Generate JWT token
         String token = jwtUtils.generateToken(user.getUserId(), user.getUsername());
         log.info("User logged in successfully: {}", username);
@@ -104,6 +121,27 @@ public class UserService {
         return BeanUtils.toLoginResponse(token, user, userRelationshipService.getRelationshipStatus(user.getUserId()));
     }
     
+    /**
+     * Upgrade stored password hash after a successful login
+     * Failures are logged only; the login itself has already succeeded
+     * 
+     * @param user authenticated user
+     * @param rawPassword verified raw password
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            String encodedPassword = passwordHashingService.encode(rawPassword);
+            userRepository.updatePassword(user.getUserId(), encodedPassword, TimeUtils.nowUtc());
+            user.setPassword(encodedPassword);
+            log.info("Upgraded password hash for user: {}", user.getUserId());
+        } catch (RuntimeException e) {
+            log.warn("Skipped password hash upgrade for user {}: {}", user.getUserId(), e.getMessage());
+        }
+    }
+    
     /**
      * Get user by ID
      * 
@@ -111,6 +149,7 @@ public class UserService {
      * @return user response
      * @throws RuntimeException if user not found
      */
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -172,6 +211,9 @@ public class UserService {
         User updatedUser = userRepository.save(user);
         log.info("User updated successfully: {}", userId);
         
+        // Refresh author snapshots in the feed read model
+        eventPublisher.publishEvent(new UserProfileUpdatedEvent(userId, updatedUser.getNickname()));
+        
         return BeanUtils.toUserResponse(updatedUser, userRelationshipService.getRelationshipStatus(userId));
     }
     
@@ -183,7 +225,6 @@ public class UserService {
      * @param currentUserId current logged-in user ID
      * @throws RuntimeException if user not found, permission denied, or old password incorrect
      */
-    @Transactional
     public void changePassword(Long userId, PasswordChangeRequest request, Long currentUserId) {
         if (userId == null || currentUserId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -205,14 +246,14 @@ public class UserService {
         User user = userOpt.get();
         
         // Verify old password
-        if (!PasswordUtils.matches(request.getOldPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getOldPassword(), user.getPassword())) {
             log.warn("Invalid old password for user: {}", userId);
             throw new RuntimeException(ResponseCode.INVALID_PASSWORD.getMessage());
         }
         
-        // Update password
-        user.setPassword(PasswordUtils.encode(request.getNewPassword()));
-        userRepository.save(user);
+        // Both BCrypt calls run outside a transaction; only the hash column is written
+        String encodedPassword = passwordHashingService.encode(request.getNewPassword());
+        userRepository.updatePassword(userId, encodedPassword, TimeUtils.nowUtc());
         
         log.info("Password changed successfully for user: {}", userId);
     }
@@ -224,6 +265,7 @@ public class UserService {
      * @return user entity
      * @throws RuntimeException if user not found
      */
+    @Transactional(readOnly = true)
     public User findUserById(Long userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -244,6 +286,7 @@ public class UserService {
      * @return user entity
      * @throws RuntimeException if user not found
      */
+    @Transactional(readOnly = true)
     public User findByUsername(String username) {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("Username cannot be null or empty");
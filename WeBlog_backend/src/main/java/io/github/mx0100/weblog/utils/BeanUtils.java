@@ -2,10 +2,17 @@ package io.github.mx0100.weblog.utils;
 
 import io.github.mx0100.weblog.dto.response.*;
 import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.FeedEntry;
 import io.github.mx0100.weblog.entity.Post;
 import io.github.mx0100.weblog.entity.User;
+import io.github.mx0100.weblog.repository.SearchRepository;
+import io.github.mx0100.weblog.repository.projection.SearchHit;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
 import io.github.mx0100.weblog.service.UserRelationshipService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Bean mapping utility class
  * Convert between entities and DTOs
@@ -76,11 +83,11 @@ public class BeanUtils {
      * Convert Post entity to PostResponse DTO
      * 
      * @param post Post entity
-     * @param author User entity (author)
+     * @param author author summary
      * @return PostResponse DTO
      */
-    public static PostResponse toPostResponse(Post post, User author) {
-        return toPostResponse(post, author, null, null);
+    public static PostResponse toPostResponse(Post post, UserSummary author) {
+        return toPostResponse(post, author, null);
     }
     
     /**
@@ -88,12 +95,11 @@ public class BeanUtils {
      * Supports rich text content
      * 
      * @param post Post entity
-     * @param author User entity (author)
+     * @param author author summary
      * @param commentIds List of comment IDs for this post
-     * @param commentsCount Total number of comments for this post
      * @return PostResponse DTO
      */
-    public static PostResponse toPostResponse(Post post, User author, java.util.List<Long> commentIds, Integer commentsCount) {
+    public static PostResponse toPostResponse(Post post, UserSummary author, List<Long> commentIds) {
         if (post == null) {
             return null;
         }
@@ -118,8 +124,34 @@ public class BeanUtils {
         }
         
         // Set comment information
-        response.setComments(commentIds != null ? commentIds : new java.util.ArrayList<>());
-        response.setCommentsCount(commentsCount != null ? commentsCount : 0);
+        response.setComments(commentIds != null ? commentIds : new ArrayList<>());
+        response.setCommentsCount(post.getCommentCount() != null ? post.getCommentCount() : 0);
+        
+        return response;
+    }
+    
+    /**
+     * Convert Post entity to PostResponse DTO with the list fields of a feed entry
+     * Author, comment count and preview come from the entry; the post only supplies its body
+     * 
+     * @param post Post entity
+     * @param entry FeedEntry holding the author snapshot, comment count and preview
+     * @param commentIds List of comment IDs for this post
+     * @return PostResponse DTO
+     */
+    public static PostResponse toPostResponse(Post post, FeedEntry entry, List<Long> commentIds) {
+        PostResponse response = toPostResponse(post, (UserSummary) null, commentIds);
+        if (response == null || entry == null) {
+            return response;
+        }
+        
+        PostResponse.AuthorInfo authorInfo = new PostResponse.AuthorInfo();
+        authorInfo.setUserId(entry.getAuthorId());
+        authorInfo.setUsername(entry.getAuthorUsername());
+        authorInfo.setNickname(entry.getAuthorNickname());
+        response.setAuthor(authorInfo);
+        response.setCommentsCount(entry.getCommentCount() != null ? entry.getCommentCount() : 0);
+        response.setPreview(entry.getPreview());
         
         return response;
     }
@@ -129,10 +161,10 @@ public class BeanUtils {
      * Supports rich text content
      * 
      * @param comment Comment entity
-     * @param author User entity (author)
+     * @param author author summary
      * @return CommentResponse DTO
      */
-    public static CommentResponse toCommentResponse(Comment comment, User author) {
+    public static CommentResponse toCommentResponse(Comment comment, UserSummary author) {
         if (comment == null) {
             return null;
         }
@@ -160,6 +192,42 @@ public class BeanUtils {
         return response;
     }
     
+    /**
+     * Convert SearchHit to SearchResultResponse DTO
+     * 
+     * @param hit search match
+     * @param author author summary
+     * @param highlight rendered highlight
+     * @return SearchResultResponse DTO
+     */
+    public static SearchResultResponse toSearchResultResponse(SearchHit hit, UserSummary author, String highlight) {
+        if (hit == null) {
+            return null;
+        }
+        
+        SearchResultResponse response = new SearchResultResponse();
+        response.setType(hit.getKind());
+        response.setPostId(hit.getPostId());
+        if (SearchRepository.KIND_COMMENT.equals(hit.getKind())) {
+            response.setCommentId(hit.getId());
+        }
+        response.setUserId(hit.getUserId());
+        response.setHighlight(highlight);
+        response.setRank(hit.getRank());
+        response.setCreatedAt(hit.getCreatedAt());
+        
+        // Set author info
+        if (author != null) {
+            SearchResultResponse.AuthorInfo authorInfo = new SearchResultResponse.AuthorInfo();
+            authorInfo.setUserId(author.getUserId());
+            authorInfo.setUsername(author.getUsername());
+            authorInfo.setNickname(author.getNickname());
+            response.setAuthor(authorInfo);
+        }
+        
+        return response;
+    }
+    
     /**
      * Create LoginResponse DTO
      * 
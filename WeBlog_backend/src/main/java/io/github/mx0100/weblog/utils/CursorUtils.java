@@ -0,0 +1,124 @@
+package io.github.mx0100.weblog.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor utility class
+ * A cursor is the opaque, URL-safe encoding of the (created_at, id) pair of the last row of a slice;
+ * ranked cursors encode (rank, kind, id) instead, for result lists ordered by relevance
+ * 
+ * @author mx0100
+ */
+public class CursorUtils {
+    
+    private static final String SEPARATOR = "|";
+    
+    /**
+     * Encode cursor
+     * 
+     * @param createdAt creation time of the last row
+     * @param id ID of the last row
+     * @return opaque cursor string
+     */
+    public static String encode(LocalDateTime createdAt, Long id) {
+        if (createdAt == null || id == null) {
+            return null;
+        }
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode cursor
+     * 
+     * @param cursor opaque cursor string
+     * @return decoded cursor, or null if the cursor is blank (first slice)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.parseLong(raw.substring(separatorIndex + 1));
+            return new Cursor(createdAt, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * Encode ranked cursor
+     * 
+     * @param rank rank of the last row (Float.toString round-trips exactly)
+     * @param kind kind of the last row
+     * @param id ID of the last row
+     * @return opaque cursor string
+     */
+    public static String encodeRanked(Float rank, String kind, Long id) {
+        if (rank == null || kind == null || id == null) {
+            return null;
+        }
+        String raw = rank + SEPARATOR + kind + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode ranked cursor
+     * 
+     * @param cursor opaque cursor string
+     * @return decoded cursor, or null if the cursor is blank (first slice)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static RankedCursor decodeRanked(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new RankedCursor(Float.parseFloat(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * Decoded keyset cursor
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+    }
+    
+    /**
+     * Decoded ranked cursor
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RankedCursor {
+        private final Float rank;
+        private final String kind;
+        private final Long id;
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.mx0100.weblog.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.mx0100.weblog.dto.RawJson;
+import io.github.mx0100.weblog.dto.RichContent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Server-side plain text extraction for rich content
+ * Walks a Quill delta ({"ops": [...]} or a bare op array) with the streaming parser and feeds the
+ * string inserts straight into one accumulator, which trims the text and derives the preview and
+ * word count in the same pass; embeds and attributes are skipped without being materialized
+ * 
+ * @author mx0100
+ */
+@Slf4j
+public class DeltaTextExtractor {
+    
+    /**
+     * Length of the stored preview (posts.preview / comments.preview)
+     */
+    public static final int PREVIEW_LENGTH = 200;
+    
+    /**
+     * Extract plain text, preview and word count
+     * The client's plainText is only used for plain text content, or when the delta cannot be read
+     * 
+     * @param content rich content from a request (may be null)
+     * @return new content with the derived plain text, plus preview and word count
+     */
+    public static ExtractedText extract(RichContent content) {
+        if (content == null) {
+            content = RichContent.createPlainText("");
+        }
+        
+        TextAccumulator text = new TextAccumulator();
+        if (!content.isRichText() || !appendDelta(content.getDelta(), text)) {
+            text = new TextAccumulator();
+            text.append(content.getDisplayText());
+        }
+        
+        RichContent normalized = new RichContent(content.getType(), content.getVersion(), content.getDelta(), text.text());
+        return new ExtractedText(normalized, text.preview(), text.wordCount());
+    }
+    
+    /**
+     * Append the string inserts of a delta in document order
+     * 
+     * @return false if the value is not a readable delta
+     */
+    private static boolean appendDelta(RawJson delta, TextAccumulator text) {
+        try (JsonParser parser = delta.createParser()) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                return appendOps(parser, text);
+            }
+            if (token != JsonToken.START_OBJECT) {
+                return false;
+            }
+            
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if ("ops".equals(field) && token == JsonToken.START_ARRAY && !found) {
+                    found = appendOps(parser, text);
+                    if (!found) {
+                        return false;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return found;
+        } catch (IOException e) {
+            log.debug("Unreadable delta, keeping client plain text: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Read an op array; the parser is positioned on its START_ARRAY and left on its END_ARRAY
+     */
+    private static boolean appendOps(JsonParser parser, TextAccumulator text) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                return false;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                token = parser.nextToken();
+                if ("insert".equals(field) && token == JsonToken.VALUE_STRING) {
+                    text.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else {
+                    // Embeds (images, formulas), attributes, retain/delete
+                    parser.skipChildren();
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Single-pass builder for the trimmed text, whitespace-collapsed preview and word count
+     * Whitespace is held back until the next visible character, so leading and trailing
+     * whitespace never reaches the output
+     */
+    private static class TextAccumulator {
+        
+        private final StringBuilder text = new StringBuilder();
+        private final StringBuilder preview = new StringBuilder();
+        private final StringBuilder pendingWhitespace = new StringBuilder();
+        private int wordCount;
+        private boolean inWord;
+        private boolean previewFull;
+        
+        void append(CharSequence chars) {
+            for (int i = 0; i < chars.length(); ) {
+                int codePoint = Character.codePointAt(chars, i);
+                accept(codePoint);
+                i += Character.charCount(codePoint);
+            }
+        }
+        
+        void append(char[] chars, int offset, int length) {
+            int end = offset + length;
+            for (int i = offset; i < end; ) {
+                int codePoint = Character.codePointAt(chars, i, end);
+                accept(codePoint);
+                i += Character.charCount(codePoint);
+            }
+        }
+        
+        private void accept(int codePoint) {
+            if (Character.isWhitespace(codePoint)) {
+                inWord = false;
+                if (!text.isEmpty()) {
+                    pendingWhitespace.appendCodePoint(codePoint);
+                }
+                return;
+            }
+            
+            if (!pendingWhitespace.isEmpty()) {
+                text.append(pendingWhitespace);
+                appendPreview(' ');
+                pendingWhitespace.setLength(0);
+            }
+            text.appendCodePoint(codePoint);
+            appendPreview(codePoint);
+            
+            // Each CJK character counts as a word, other words are runs of visible characters
+            if (isCjk(codePoint)) {
+                wordCount++;
+                inWord = false;
+            } else if (!inWord) {
+                wordCount++;
+                inWord = true;
+            }
+        }
+        
+        private void appendPreview(int codePoint) {
+            if (previewFull) {
+                return;
+            }
+            if (preview.length() + Character.charCount(codePoint) > PREVIEW_LENGTH) {
+                // Never split a surrogate pair
+                previewFull = true;
+                return;
+            }
+            preview.appendCodePoint(codePoint);
+        }
+        
+        String text() {
+            return text.toString();
+        }
+        
+        String preview() {
+            // Collapsed spaces are only added before a visible character, but the cut may land right after one
+            return preview.toString().stripTrailing();
+        }
+        
+        int wordCount() {
+            return wordCount;
+        }
+        
+        /**
+         * Han ideographs (incl. extension A), hiragana and katakana; kept in sync with the V9 backfill
+         */
+        private static boolean isCjk(int codePoint) {
+            return (codePoint >= 0x4E00 && codePoint <= 0x9FFF)
+                    || (codePoint >= 0x3400 && codePoint <= 0x4DBF)
+                    || (codePoint >= 0x3040 && codePoint <= 0x30FF);
+        }
+    }
+    
+    /**
+     * Result of an extraction
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ExtractedText {
+        
+        /**
+         * Content with the server-derived plain text
+         */
+        private final RichContent content;
+        
+        /**
+         * First PREVIEW_LENGTH characters of the plain text, whitespace runs collapsed to one space
+         */
+        private final String preview;
+        
+        private final int wordCount;
+    }
+}
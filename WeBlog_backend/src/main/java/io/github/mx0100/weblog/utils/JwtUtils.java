@@ -1,9 +1,14 @@
 package io.github.mx0100.weblog.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.github.mx0100.weblog.config.JwtConfig;
+import io.github.mx0100.weblog.security.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -11,18 +16,37 @@ import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT utility class
+ * Signing key and parser are built once; verified tokens are cached until they expire
+ * (or the configured cache TTL passes) so repeat requests skip the HMAC check
  * 
  * @author mx0100
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtUtils {
     
     private final JwtConfig jwtConfig;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    
+    public JwtUtils(JwtConfig jwtConfig, MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        this.signingKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getCacheMaxSize())
+                .expireAfter(new TokenExpiry(TimeUnit.MINUTES.toNanos(jwtConfig.getCacheTtlMinutes())))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified-tokens");
+    }
     
     /**
      * Generate JWT token
@@ -40,24 +64,78 @@ public class JwtUtils {
                 .claim("username", username)
                 .issuedAt(Date.from(now.toInstant(ZoneOffset.UTC)))
                 .expiration(Date.from(expiration.toInstant(ZoneOffset.UTC)))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
     /**
-     * Get user ID from token
+     * Verify token once and return its principal
      * 
      * @param token JWT token
-     * @return user ID
+     * @return user principal or null if the token is invalid or expired
      */
-    public Long getUserIdFromToken(String token) {
+    public UserPrincipal getPrincipalFromToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                return cached.principal();
+            }
+            verifiedTokens.invalidate(token);
+        }
+        
+        Claims claims;
         try {
-            Claims claims = parseToken(token);
-            return Long.parseLong(claims.getSubject());
+            claims = parseToken(token);
+        } catch (ExpiredJwtException e) {
+            log.warn("JWT token is expired: {}", e.getMessage());
+            return null;
+        } catch (UnsupportedJwtException e) {
+            log.warn("JWT token is unsupported: {}", e.getMessage());
+            return null;
+        } catch (MalformedJwtException e) {
+            log.warn("JWT token is malformed: {}", e.getMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            log.warn("JWT token compact is empty: {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            log.error("Failed to get user ID from token", e);
+            log.error("JWT token validation failed", e);
+            return null;
+        }
+        
+        String username = claims.get("username", String.class);
+        Long userId;
+        try {
+            userId = Long.parseLong(claims.getSubject());
+        } catch (NumberFormatException e) {
+            log.warn("JWT token subject is not a user ID: {}", claims.getSubject());
             return null;
         }
+        if (username == null) {
+            return null;
+        }
+        
+        UserPrincipal principal = new UserPrincipal(userId, username);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            verifiedTokens.put(token, new VerifiedToken(principal, expiration.getTime()));
+        }
+        return principal;
+    }
+    
+    /**
+     * Get user ID from token
+     * 
+     * @param token JWT token
+     * @return user ID
+     */
+    public Long getUserIdFromToken(String token) {
+        UserPrincipal principal = getPrincipalFromToken(token);
+        return principal != null ? principal.getUserId() : null;
     }
     
     /**
@@ -67,13 +145,8 @@ public class JwtUtils {
      * @return username
      */
     public String getUsernameFromToken(String token) {
-        try {
-            Claims claims = parseToken(token);
-            return claims.get("username", String.class);
-        } catch (Exception e) {
-            log.error("Failed to get username from token", e);
-            return null;
-        }
+        UserPrincipal principal = getPrincipalFromToken(token);
+        return principal != null ? principal.getUsername() : null;
     }
     
     /**
@@ -83,21 +156,7 @@ public class JwtUtils {
      * @return true if valid
      */
     public boolean validateToken(String token) {
-        try {
-            parseToken(token);
-            return true;
-        } catch (ExpiredJwtException e) {
-            log.warn("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            log.warn("JWT token is unsupported: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            log.warn("JWT token is malformed: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            log.warn("JWT token compact is empty: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("JWT token validation failed", e);
-        }
-        return false;
+        return getPrincipalFromToken(token) != null;
     }
     
     /**
@@ -107,19 +166,40 @@ public class JwtUtils {
      * @return claims
      */
     private Claims parseToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
     
     /**
-     * Get signing key
-     * 
-     * @return signing key
+     * Verified principal with the token's expiry time
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes());
+    private record VerifiedToken(UserPrincipal principal, long expiresAtMillis) {
+    }
+    
+    /**
+     * Expire cache entries when the token expires, capped by the configured TTL
+     */
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        
+        private final long maxTtlNanos;
+        
+        TokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+        
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(value.expiresAtMillis() - System.currentTimeMillis());
+            return Math.max(0, Math.min(remainingNanos, maxTtlNanos));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package io.github.mx0100.weblog.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement counter for the current thread
+ * Registered as the session factory's statement inspector; counts every statement Hibernate
+ * prepares (queries, lazy loads, each distinct batched insert/update) between
+ * {@link #start()} and {@link #stop()}. Statements issued through JdbcTemplate are not seen
+ * 
+ * @author mx0100
+ */
+public class QueryCounter implements StatementInspector {
+    
+    public static final QueryCounter INSTANCE = new QueryCounter();
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    private QueryCounter() {
+    }
+    
+    /**
+     * Start counting on the current thread
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    /**
+     * Stop counting on the current thread
+     * 
+     * @return number of statements since {@link #start()}, 0 if counting was not started
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -1,24 +1,38 @@
 package io.github.mx0100.weblog.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.mx0100.weblog.dto.RichContent;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
 import org.springframework.stereotype.Component;
 
 /**
  * JPA converter for RichContent to JSONb conversion
+ * Uses a prebuilt reader/writer; the delta is carried as raw JSON text and never materialized as a tree.
+ * RichContent is treated as immutable (entities replace it, never edit it in place), so Hibernate
+ * compares by equals instead of snapshotting each loaded value through a JSON round trip
  * 
  * @author mx0100
  */
 @Slf4j
 @Component
 @Converter(autoApply = false)
+@Mutability(Immutability.class)
 public class RichContentConverter implements AttributeConverter<RichContent, String> {
     
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    
+    private static final ObjectReader READER = OBJECT_MAPPER.readerFor(RichContent.class);
+    
+    private static final ObjectWriter WRITER = OBJECT_MAPPER.writerFor(RichContent.class);
     
     @Override
     public String convertToDatabaseColumn(RichContent attribute) {
@@ -27,8 +41,10 @@ public class RichContentConverter implements AttributeConverter<RichContent, Str
         }
         
         try {
-            String json = objectMapper.writeValueAsString(attribute);
-            log.debug("Converting RichContent to JSON: {}", json);
+            String json = WRITER.writeValueAsString(attribute);
+            if (log.isDebugEnabled()) {
+                log.debug("Converted RichContent ({}) to JSON, {} chars", attribute.getType(), json.length());
+            }
             return json;
         } catch (JsonProcessingException e) {
             log.error("Error converting RichContent to JSON: {}", e.getMessage(), e);
@@ -39,28 +55,29 @@ public class RichContentConverter implements AttributeConverter<RichContent, Str
     
     @Override
     public RichContent convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.trim().isEmpty()) {
+        int start = firstNonWhitespace(dbData);
+        if (start < 0) {
             return RichContent.createPlainText("");
         }
         
+        // Treat anything that is not a JSON object as legacy plain text
+        if (dbData.charAt(start) != '{') {
+            if (log.isDebugEnabled()) {
+                log.debug("Converting legacy plain text to RichContent, {} chars", dbData.length());
+            }
+            return RichContent.createPlainText(dbData);
+        }
+        
         try {
-            // Try to parse as JSON first
-            if (dbData.trim().startsWith("{")) {
-                RichContent content = objectMapper.readValue(dbData, RichContent.class);
-                log.debug("Converted JSON to RichContent: {}", content);
-                
-                // Validate and fix if necessary
-                if (!content.isValid()) {
-                    log.warn("Invalid RichContent structure, converting to plain text: {}", dbData);
-                    return RichContent.createPlainText(content.getPlainText());
-                }
-                
-                return content;
-            } else {
-                // Treat as legacy plain text
-                log.debug("Converting legacy plain text to RichContent: {}", dbData);
-                return RichContent.createPlainText(dbData);
+            RichContent content = READER.readValue(dbData);
+            
+            // Validate and fix if necessary
+            if (!content.isValid()) {
+                log.warn("Invalid RichContent structure, converting to plain text");
+                return RichContent.createPlainText(content.getPlainText());
             }
+            
+            return content;
         } catch (JsonProcessingException e) {
             log.error("Error parsing JSON to RichContent, treating as plain text: {}", e.getMessage());
             // Fallback: treat as plain text
@@ -68,13 +85,28 @@ public class RichContentConverter implements AttributeConverter<RichContent, Str
         }
     }
     
+    /**
+     * Index of the first non-whitespace character, or -1 if there is none
+     */
+    private static int firstNonWhitespace(String value) {
+        if (value == null) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     /**
      * Fallback method to convert RichContent to plain text JSON when serialization fails
      */
     private String convertPlainTextFallback(RichContent content) {
         try {
             RichContent fallback = RichContent.createPlainText(content.getDisplayText());
-            return objectMapper.writeValueAsString(fallback);
+            return WRITER.writeValueAsString(fallback);
         } catch (JsonProcessingException e) {
             log.error("Even fallback conversion failed: {}", e.getMessage(), e);
             // Last resort: return a minimal JSON structure
@@ -82,4 +114,4 @@ public class RichContentConverter implements AttributeConverter<RichContent, Str
                                 content.getDisplayText().replace("\"", "\\\""));
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+-- ======================================
+-- Pending Notifications
+-- ======================================
+-- Version: 10.0
+-- Description: Notifications are stored in the transaction of the write that
+--              raised them, before they are rendered. While pending_since is
+--              set, payload holds the pending notification (type, sender,
+--              recipient, data) instead of the message sent to clients.
+--              Replay and cross-node delivery only read rendered rows; rows
+--              left pending (executor saturated, failed render, node crash)
+--              are claimed again by the redelivery job.
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS pending_since TIMESTAMP WITH TIME ZONE;
+
+-- Redelivery: WHERE pending_since < ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_notifications_pending_since ON notifications(pending_since)
+    WHERE pending_since IS NOT NULL;
@@ -0,0 +1,28 @@
+-- ======================================
+-- Keyset Pagination Indexes
+-- ======================================
+-- Version: 3.0
+-- Description: Composite indexes backing cursor-based pagination of
+--              timelines (posts by user IDs) and comment threads
+
+-- ======================================
+-- Posts Table
+-- ======================================
+-- Serves: WHERE user_id IN (...) AND (created_at, post_id) < (?, ?)
+--         ORDER BY created_at DESC, post_id DESC
+CREATE INDEX IF NOT EXISTS idx_posts_user_created_id
+    ON posts(user_id, created_at DESC, post_id DESC);
+
+-- Leading column of the composite index covers plain user_id lookups
+DROP INDEX IF EXISTS idx_posts_user_id;
+
+-- ======================================
+-- Comments Table
+-- ======================================
+-- Serves: WHERE post_id = ? AND (created_at, comment_id) > (?, ?)
+--         ORDER BY created_at ASC, comment_id ASC
+CREATE INDEX IF NOT EXISTS idx_comments_post_created_id
+    ON comments(post_id, created_at ASC, comment_id ASC);
+
+-- Leading column of the composite index covers plain post_id lookups
+DROP INDEX IF EXISTS idx_comments_post_id;
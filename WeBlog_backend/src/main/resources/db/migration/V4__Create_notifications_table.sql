@@ -0,0 +1,24 @@
+-- ======================================
+-- Notification Outbox
+-- ======================================
+-- Version: 4.0
+-- Description: Append-only store of delivered notifications, replayed to
+--              clients that reconnect with a last-seen notification ID
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id BIGSERIAL PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL, -- Serialized NotificationMessage sent to the client
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    
+    -- Foreign key constraint
+    CONSTRAINT fk_notifications_recipient FOREIGN KEY (recipient_id) REFERENCES users(user_id) ON DELETE CASCADE
+);
+
+-- Replay: WHERE recipient_id = ? AND id > ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_notifications_recipient_id ON notifications(recipient_id, id);
+
+-- Purge: WHERE expires_at < ?
+CREATE INDEX IF NOT EXISTS idx_notifications_expires_at ON notifications(expires_at);
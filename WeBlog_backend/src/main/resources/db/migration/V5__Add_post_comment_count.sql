@@ -0,0 +1,14 @@
+-- ======================================
+-- Denormalized Comment Counter
+-- ======================================
+-- Version: 5.0
+-- Description: Store the number of comments on each post so feed rendering
+--              does not count comments per request
+
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from existing comments
+UPDATE posts p
+SET comment_count = c.cnt
+FROM (SELECT post_id, COUNT(*) AS cnt FROM comments GROUP BY post_id) c
+WHERE p.post_id = c.post_id;
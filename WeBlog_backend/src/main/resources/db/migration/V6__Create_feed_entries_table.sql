@@ -0,0 +1,43 @@
+-- ======================================
+-- Feed Read Model
+-- ======================================
+-- Version: 6.0
+-- Description: Materialized per-user timelines (fan-out on write) so reading
+--              a couple's feed is one index range scan without relationship lookups
+
+CREATE TABLE IF NOT EXISTS feed_entries (
+    owner_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    author_username VARCHAR(50) NOT NULL,
+    author_nickname VARCHAR(100) NOT NULL,
+    comment_count INTEGER NOT NULL DEFAULT 0,
+    preview TEXT,
+    
+    PRIMARY KEY (owner_id, post_id),
+    
+    -- Foreign key constraints
+    CONSTRAINT fk_feed_entries_owner FOREIGN KEY (owner_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    CONSTRAINT fk_feed_entries_post FOREIGN KEY (post_id) REFERENCES posts(post_id) ON DELETE CASCADE
+);
+
+-- Timeline reads (offset and keyset)
+CREATE INDEX IF NOT EXISTS idx_feed_entries_owner_created ON feed_entries(owner_id, created_at DESC, post_id DESC);
+
+-- Fan-out updates by post and unpairing by author
+CREATE INDEX IF NOT EXISTS idx_feed_entries_post_id ON feed_entries(post_id);
+CREATE INDEX IF NOT EXISTS idx_feed_entries_author_id ON feed_entries(author_id);
+
+COMMENT ON TABLE feed_entries IS 'Per-user timeline read model maintained by the application';
+
+-- Backfill from existing posts and active relationships
+INSERT INTO feed_entries (owner_id, post_id, author_id, created_at, author_username, author_nickname, comment_count, preview)
+SELECT v.owner_id, p.post_id, p.user_id, p.created_at, u.username, u.nickname, p.comment_count,
+       LEFT(COALESCE(p.content_rich ->> 'plainText', p.content, ''), 200)
+FROM (SELECT user_id AS owner_id, user_id AS author_id FROM users
+      UNION ALL SELECT user1_id, user2_id FROM user_relationships WHERE status = 'ACTIVE'
+      UNION ALL SELECT user2_id, user1_id FROM user_relationships WHERE status = 'ACTIVE') v
+JOIN posts p ON p.user_id = v.author_id
+JOIN users u ON u.user_id = p.user_id
+ON CONFLICT (owner_id, post_id) DO NOTHING;
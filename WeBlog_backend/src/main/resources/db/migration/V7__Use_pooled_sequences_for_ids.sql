@@ -0,0 +1,21 @@
+-- ======================================
+-- Pooled Sequence ID Generation
+-- ======================================
+-- Version: 7.0
+-- Description: Switch entity IDs from IDENTITY to sequences with allocation
+--              size 50 so Hibernate can batch inserts. The BIGSERIAL sequences
+--              are kept and step by 50; each nextval hands Hibernate a block of
+--              50 IDs (value - 49 .. value). Plain INSERTs that rely on the column
+--              default still receive unique IDs, as every value is a distinct
+--              multiple-of-50 step outside any block in use.
+
+ALTER SEQUENCE users_user_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_relationships_id_seq INCREMENT BY 50;
+ALTER SEQUENCE posts_post_id_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_comment_id_seq INCREMENT BY 50;
+
+-- Restart each sequence right after the highest existing ID, so the first block starts above it
+SELECT setval('users_user_id_seq', GREATEST((SELECT COALESCE(MAX(user_id), 0) FROM users), 1), true);
+SELECT setval('user_relationships_id_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM user_relationships), 1), true);
+SELECT setval('posts_post_id_seq', GREATEST((SELECT COALESCE(MAX(post_id), 0) FROM posts), 1), true);
+SELECT setval('comments_comment_id_seq', GREATEST((SELECT COALESCE(MAX(comment_id), 0) FROM comments), 1), true);
@@ -0,0 +1,36 @@
+-- ======================================
+-- Content Preview Columns
+-- ======================================
+-- Version: 9.0
+-- Description: Preview (first 200 characters, whitespace collapsed) and word
+--              count of posts and comments. New rows get both from
+--              DeltaTextExtractor at write time. Previews in feeds and
+--              notifications then read a short column instead of the JSONB
+--              document. Existing rows are backfilled from their stored
+--              plainText, with the same word rule: each CJK character is a
+--              word, otherwise runs of non-whitespace characters are.
+--              The backfill rewrites every row once.
+
+-- ======================================
+-- Posts Table
+-- ======================================
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS preview VARCHAR(200);
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS word_count INTEGER;
+
+UPDATE posts SET
+    preview = rtrim(LEFT(btrim(regexp_replace(COALESCE(content_rich ->> 'plainText', ''), '\s+', ' ', 'g')), 200)),
+    word_count = (SELECT COUNT(*) FROM regexp_matches(COALESCE(content_rich ->> 'plainText', ''),
+                  '[\u3040-\u30ff\u3400-\u4dbf\u4e00-\u9fff]|[^\s\u3040-\u30ff\u3400-\u4dbf\u4e00-\u9fff]+', 'g'))
+WHERE preview IS NULL;
+
+-- ======================================
+-- Comments Table
+-- ======================================
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS preview VARCHAR(200);
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS word_count INTEGER;
+
+UPDATE comments SET
+    preview = rtrim(LEFT(btrim(regexp_replace(COALESCE(content_rich ->> 'plainText', ''), '\s+', ' ', 'g')), 200)),
+    word_count = (SELECT COUNT(*) FROM regexp_matches(COALESCE(content_rich ->> 'plainText', ''),
+                  '[\u3040-\u30ff\u3400-\u4dbf\u4e00-\u9fff]|[^\s\u3040-\u30ff\u3400-\u4dbf\u4e00-\u9fff]+', 'g'))
+WHERE preview IS NULL;
@@ -0,0 +1,208 @@
+package io.github.mx0100.weblog.config;
+
+import io.github.mx0100.weblog.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Read routing between mocked primary and replica DataSources
+ * The replica answers the lag query with whatever the test sets, sampled every few milliseconds
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private final Connection primaryConnection = mock(Connection.class);
+    
+    private final Connection replicaConnection = mock(Connection.class);
+    
+    private final ReplicaDataSourceConfig config = new ReplicaDataSourceConfig();
+    
+    private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(Duration.ofMinutes(1), 100);
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private volatile Long replicaLagMs = 0L;
+    
+    private ReplicaRoutingDataSource routing;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        stubLagQuery();
+        config.setMaxLagMs(5000L);
+        config.setLagCheckIntervalMs(10L);
+        config.setReadYourWritesMarginMs(1000L);
+        routing = new ReplicaRoutingDataSource(dataSource(primaryConnection), dataSource(replicaConnection),
+                readYourWrites, config, meterRegistry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void readsUseReplicaWithinMaxLag() throws Exception {
+        awaitLag(100L);
+        
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(reads("replica")).isEqualTo(1);
+    }
+    
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws Exception {
+        awaitLag(6000L);
+        
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(reads("replica_lag")).isEqualTo(1);
+        
+        awaitLag(0L);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+    
+    @Test
+    void unreachableReplicaFallsBackToPrimary() throws Exception {
+        awaitLag(0L);
+        replicaLagMs = null;
+        awaitGauge(Double.NaN);
+        
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(reads("replica_lag")).isEqualTo(1);
+    }
+    
+    @Test
+    void recentWriterReadsFromPrimary() throws Exception {
+        awaitLag(0L);
+        authenticate(1L);
+        readYourWrites.afterCommit(readWriteTransaction(), null);
+        
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(reads("read_your_writes")).isEqualTo(1);
+        
+        // Other users are not held back by someone else's write
+        authenticate(2L);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+    
+    @Test
+    void partnerReadsFromPrimaryAfterTheOtherPartnerWrites() throws Exception {
+        readYourWrites.setPartnerLookup(userId -> userId == 1L ? 2L : userId == 2L ? 1L : null);
+        awaitLag(0L);
+        authenticate(1L);
+        readYourWrites.afterCommit(readWriteTransaction(), null);
+        
+        // The couple shares one cached timeline, so the partner must not render it from the replica
+        authenticate(2L);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        
+        authenticate(3L);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+    
+    @Test
+    void writeOlderThanLagPlusMarginReadsFromReplica() throws Exception {
+        config.setReadYourWritesMarginMs(0L);
+        awaitLag(0L);
+        authenticate(1L);
+        readYourWrites.afterCommit(readWriteTransaction(), null);
+        Thread.sleep(5);
+        
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+    
+    @Test
+    void readOnlyAndFailedCommitsAreNotTracked() throws Exception {
+        awaitLag(0L);
+        authenticate(1L);
+        readYourWrites.afterCommit(transaction(true, true), null);
+        readYourWrites.afterCommit(readWriteTransaction(), new RuntimeException("commit failed"));
+        
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+    
+    /**
+     * The replica answers the lag query with one row holding replicaLagMs, or fails while it is null
+     */
+    private void stubLagQuery() throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        boolean[] read = {false};
+        long[] lag = {0L};
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenAnswer(invocation -> {
+            Long current = replicaLagMs;
+            if (current == null) {
+                throw new SQLException("connection refused");
+            }
+            lag[0] = current;
+            read[0] = false;
+            return resultSet;
+        });
+        when(resultSet.next()).thenAnswer(invocation -> !read[0] && (read[0] = true));
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getLong(anyInt())).thenAnswer(invocation -> lag[0]);
+        when(metaData.getColumnCount()).thenReturn(1);
+    }
+    
+    private void awaitLag(Long lagMs) throws InterruptedException {
+        replicaLagMs = lagMs;
+        awaitGauge(lagMs.doubleValue());
+    }
+    
+    private void awaitGauge(double expected) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            if (Double.compare(meterRegistry.get("weblog.db.replica.lag").gauge().value(), expected) == 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Replica lag never reached " + expected);
+    }
+    
+    private double reads(String reason) {
+        return meterRegistry.get("weblog.db.reads").tag("reason", reason).counter().count();
+    }
+    
+    private static void authenticate(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+    
+    private static TransactionExecution readWriteTransaction() {
+        return transaction(false, true);
+    }
+    
+    private static TransactionExecution transaction(boolean readOnly, boolean newTransaction) {
+        TransactionExecution transaction = mock(TransactionExecution.class);
+        when(transaction.isReadOnly()).thenReturn(readOnly);
+        when(transaction.isNewTransaction()).thenReturn(newTransaction);
+        return transaction;
+    }
+    
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.mx0100.weblog.repository;
+
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native comment queries against the Flyway-managed schema, so a mapped column
+ * missing from a select list fails here rather than on the feed endpoint
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class CommentRepositoryTest {
+    
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void findLatestByPostIdInReturnsNewestCommentsPerPostWithDerivedColumns() {
+        Long userId = userRepository.findByUsername("alice").orElseThrow().getUserId();
+        Post post = new Post();
+        post.setUserId(userId);
+        post.setPlainTextContent("Post with comments");
+        Long postId = postRepository.save(post).getPostId();
+        
+        for (int i = 0; i < 5; i++) {
+            Comment comment = new Comment();
+            comment.setPostId(postId);
+            comment.setUserId(userId);
+            comment.setPlainTextContent("Comment " + i);
+            commentRepository.save(comment);
+        }
+        
+        List<Comment> latest = commentRepository.findLatestByPostIdIn(List.of(postId), 3);
+        
+        assertThat(latest).extracting(Comment::getPreview).containsExactly("Comment 2", "Comment 3", "Comment 4");
+        assertThat(latest).extracting(Comment::getWordCount).containsOnly(2);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.mx0100.weblog.repository;
+
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.utils.CursorUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through a timeline whose posts share one creation time, so every slice boundary
+ * falls on a tie that only the ID can break
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PostRepositoryTest {
+    
+    private static final int POSTS = 7;
+    
+    private static final int SLICE = 2;
+    
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void keysetSlicesCoverTiedPostsOnceInOrder() {
+        Long userId = userRepository.findByUsername("alice").orElseThrow().getUserId();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            Post post = new Post();
+            post.setUserId(userId);
+            post.setPlainTextContent("Tied post " + i);
+            expected.add(postRepository.save(post).getPostId());
+        }
+        // Newer than anything seeded, identical for every post
+        LocalDateTime tie = LocalDateTime.of(2100, 1, 1, 0, 0, 0, 123456000);
+        jdbcTemplate.update("UPDATE posts SET created_at = ? WHERE post_id = ANY(?)",
+                Timestamp.valueOf(tie), expected.toArray(Long[]::new));
+        expected.sort(Comparator.reverseOrder());
+        
+        List<Long> paged = new ArrayList<>();
+        List<Post> slice = postRepository.findSliceByUserIdIn(List.of(userId), PageRequest.of(0, SLICE));
+        while (paged.size() < POSTS) {
+            assertThat(slice).isNotEmpty();
+            slice.forEach(post -> paged.add(post.getPostId()));
+            Post last = slice.get(slice.size() - 1);
+            CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(last.getCreatedAt(), last.getPostId()));
+            slice = postRepository.findSliceByUserIdInAfter(List.of(userId), cursor.getCreatedAt(), cursor.getId(),
+                    PageRequest.of(0, SLICE));
+        }
+        
+        assertThat(paged.subList(0, POSTS)).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.entity.Comment;
+import io.github.mx0100.weblog.entity.Post;
+import io.github.mx0100.weblog.repository.PostRepository;
+import io.github.mx0100.weblog.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that bulk inserts are sent as JDBC batches against the Flyway-managed schema
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=" + BulkWriteServiceTest.BATCH_SIZE
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BulkWriteServiceTest {
+    
+    static final int BATCH_SIZE = 20;
+    
+    private static final int ALLOCATION_SIZE = 50;
+    
+    private static final int ROWS = 100;
+    
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @Autowired
+    private BulkWriteService bulkWriteService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PostRepository postRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = userRepository.findByUsername("alice").orElseThrow().getUserId();
+    }
+    
+    @Test
+    void insertPostsSendsOneStatementPerBatch() {
+        List<Post> posts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Post post = new Post();
+            post.setUserId(userId);
+            post.setPlainTextContent("Bulk post " + i);
+            posts.add(post);
+        }
+        
+        statistics.clear();
+        List<Long> ids = bulkWriteService.insertPosts(posts);
+        
+        assertThat(ids).hasSize(ROWS).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // One statement per insert batch plus one sequence call per block of IDs
+        // (row-by-row inserts would need at least ROWS statements)
+        long maxStatements = ROWS / BATCH_SIZE + ROWS / ALLOCATION_SIZE + 1;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(maxStatements);
+    }
+    
+    @Test
+    void insertCommentsBatchesAndUpdatesCounters() {
+        Post post = new Post();
+        post.setUserId(userId);
+        post.setPlainTextContent("Post with bulk comments");
+        Long postId = bulkWriteService.insertPosts(List.of(post)).get(0);
+        
+        List<Comment> comments = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Comment comment = new Comment();
+            comment.setPostId(postId);
+            comment.setUserId(userId);
+            comment.setPlainTextContent("Bulk comment " + i);
+            comments.add(comment);
+        }
+        
+        statistics.clear();
+        bulkWriteService.insertComments(comments);
+        
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // Insert batches, sequence calls and a single counter update
+        long maxStatements = ROWS / BATCH_SIZE + ROWS / ALLOCATION_SIZE + 2;
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(maxStatements);
+        assertThat(postRepository.findById(postId).orElseThrow().getCommentCount()).isEqualTo(ROWS);
+    }
+}
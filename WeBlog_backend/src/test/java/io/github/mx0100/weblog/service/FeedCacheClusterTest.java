@@ -0,0 +1,111 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.config.ClusterConfig;
+import io.github.mx0100.weblog.config.FeedCacheConfig;
+import io.github.mx0100.weblog.dto.response.PageResponse;
+import io.github.mx0100.weblog.dto.response.PostResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Feed cache evictions across two nodes, each with its own in-memory shared tier
+ */
+class FeedCacheClusterTest {
+    
+    private static final Long VIEWER_ID = 1L;
+    
+    private static final String PAGE_KEY = "c:10:0";
+    
+    private final InMemoryNotificationBus.Hub hub = new InMemoryNotificationBus.Hub();
+    private final FeedCacheConfig feedCacheConfig = new FeedCacheConfig();
+    private final List<Node> nodes = new ArrayList<>();
+    
+    private Node nodeA;
+    private Node nodeB;
+    
+    @BeforeEach
+    void setUp() {
+        nodeA = startNode("a");
+        nodeB = startNode("b");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.presenceDirectory.close());
+    }
+    
+    @Test
+    void remoteEvictionClearsBothTiersOfTheOtherNode() {
+        AtomicInteger renders = new AtomicInteger();
+        nodeB.feedCache.get(VIEWER_ID, PAGE_KEY, () -> page(renders));
+        assertThat(nodeB.sharedStore.get("u:" + VIEWER_ID, PAGE_KEY)).isNotNull();
+        
+        nodeA.feedCache.evictTimelineOf(VIEWER_ID);
+        
+        assertThat(nodeB.sharedStore.get("u:" + VIEWER_ID, PAGE_KEY)).isNull();
+        nodeB.feedCache.get(VIEWER_ID, PAGE_KEY, () -> page(renders));
+        assertThat(renders).hasValue(2);
+    }
+    
+    @Test
+    void reconnectClearsBothTiers() {
+        AtomicInteger renders = new AtomicInteger();
+        nodeB.feedCache.get(VIEWER_ID, PAGE_KEY, () -> page(renders));
+        
+        nodeB.relay.onReconnect();
+        
+        assertThat(nodeB.sharedStore.get("u:" + VIEWER_ID, PAGE_KEY)).isNull();
+        nodeB.feedCache.get(VIEWER_ID, PAGE_KEY, () -> page(renders));
+        assertThat(renders).hasValue(2);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Node startNode(String nodeId) {
+        ClusterConfig clusterConfig = new ClusterConfig();
+        clusterConfig.setNodeId(nodeId);
+        clusterConfig.setHeartbeatIntervalMs(60_000L);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryNotificationBus bus = new InMemoryNotificationBus(hub);
+        
+        Node node = new Node();
+        node.presenceDirectory = new PresenceDirectory(bus, clusterConfig, meterRegistry);
+        node.sharedStore = new InMemoryFeedCacheStore(100, Duration.ofMinutes(5));
+        PartnerCache partnerCache = mock(PartnerCache.class);
+        node.feedCache = new FeedCache(feedCacheConfig, node.sharedStore, partnerCache, mock(ObjectProvider.class),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        node.relay = new ClusterNotificationRelay(bus, node.presenceDirectory, mock(NotificationOutbox.class),
+                mock(NotificationWebSocketHandler.class), partnerCache, node.feedCache,
+                mock(ObjectProvider.class), clusterConfig, mock(ThreadPoolTaskExecutor.class));
+        node.relay.start();
+        nodes.add(node);
+        return node;
+    }
+    
+    private static PageResponse<PostResponse> page(AtomicInteger renders) {
+        renders.incrementAndGet();
+        PageResponse<PostResponse> page = new PageResponse<>();
+        page.setContent(List.of());
+        page.setHasNext(false);
+        return page;
+    }
+    
+    private static class Node {
+        private PresenceDirectory presenceDirectory;
+        private InMemoryFeedCacheStore sharedStore;
+        private FeedCache feedCache;
+        private ClusterNotificationRelay relay;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.config.NotificationConfig;
+import io.github.mx0100.weblog.dto.NotificationMessage;
+import io.github.mx0100.weblog.dto.PendingNotification;
+import io.github.mx0100.weblog.repository.projection.UserSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mailbox draining when the executor is saturated or a batch fails to deliver
+ */
+class NotificationDispatcherTest {
+    
+    private static final Long SENDER_ID = 1L;
+    
+    private static final Long RECIPIENT_ID = 2L;
+    
+    private final AuthorSummaryService authorSummaryService = mock(AuthorSummaryService.class);
+    private final NotificationWebSocketHandler webSocketHandler = mock(NotificationWebSocketHandler.class);
+    private final NotificationOutbox notificationOutbox = mock(NotificationOutbox.class);
+    private final ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+    private final NotificationConfig notificationConfig = new NotificationConfig();
+    
+    private NotificationDispatcher dispatcher;
+    
+    @BeforeEach
+    void setUp() {
+        notificationConfig.setBatchSize(1);
+        notificationConfig.setRetryDelayMs(20L);
+        when(authorSummaryService.getSummaries(any()))
+                .thenReturn(Map.of(SENDER_ID, new UserSummary(SENDER_ID, "alice", "Alice", null)));
+        when(notificationOutbox.render(anyList()))
+                .thenAnswer(invocation -> List.of("{}"));
+        dispatcher = new NotificationDispatcher(authorSummaryService, webSocketHandler, notificationOutbox,
+                mock(ClusterNotificationRelay.class), notificationConfig, executor, new SimpleMeterRegistry());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+    
+    @Test
+    void rejectedMailboxIsRetriedWithoutAnotherDispatch() {
+        doThrow(new RejectedExecutionException("saturated"))
+                .doAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(0).run();
+                    return null;
+                })
+                .when(executor).execute(any(Runnable.class));
+        
+        dispatcher.dispatch(pending(10L));
+        
+        verify(webSocketHandler, timeout(2000)).sendPayloadToUser(RECIPIENT_ID, 10L, "{}");
+    }
+    
+    @Test
+    void failedBatchDoesNotStopTheRestOfTheMailbox() {
+        // Queue both notifications before the drain runs, so they are delivered as two batches of one
+        Runnable[] drain = new Runnable[1];
+        doAnswer(invocation -> {
+            drain[0] = invocation.getArgument(0);
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        when(notificationOutbox.render(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(invocation -> List.of("{}"));
+        
+        dispatcher.dispatch(pending(10L));
+        dispatcher.dispatch(pending(11L));
+        drain[0].run();
+        
+        verify(webSocketHandler, never()).sendPayloadToUser(anyLong(), eq(10L), anyString());
+        verify(webSocketHandler).sendPayloadToUser(RECIPIENT_ID, 11L, "{}");
+        // The failed notification was not discarded, so its row stays pending for the redelivery job
+        verify(notificationOutbox, never()).discard(anyList());
+    }
+    
+    private static PendingNotification pending(Long id) {
+        return PendingNotification.builder()
+                .id(id)
+                .type(NotificationMessage.Type.NEW_POST)
+                .fromUserId(SENDER_ID)
+                .toUserId(RECIPIENT_ID)
+                .data(Map.of())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.mx0100.weblog.service;
+
+import io.github.mx0100.weblog.entity.UserRelationship;
+import io.github.mx0100.weblog.event.RelationshipChangedEvent;
+import io.github.mx0100.weblog.repository.UserRelationshipRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drift repair of the partner map against an in-memory relationship table
+ * The full-table snapshot and the per-user re-read are backed separately, so a change
+ * committed between the two can be simulated
+ */
+class PartnerCacheTest {
+    
+    private final List<UserRelationship> snapshot = new ArrayList<>();
+    
+    private final List<UserRelationship> current = new ArrayList<>();
+    
+    private PartnerCache partnerCache;
+    
+    @BeforeEach
+    void setUp() {
+        UserRelationshipRepository repository = mock(UserRelationshipRepository.class);
+        when(repository.findAllActiveRelationships()).thenAnswer(invocation -> new ArrayList<>(snapshot));
+        when(repository.findActiveRelationshipByUserId(anyLong())).thenAnswer(invocation -> current.stream()
+                .filter(relationship -> relationship.containsUser(invocation.getArgument(0)))
+                .findFirst());
+        partnerCache = new PartnerCache(repository, new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void verifyAddsPairMissedByEvents() {
+        partnerCache.load();
+        commit(couple(1L, 2L));
+        
+        assertThat(partnerCache.verify()).isEqualTo(2);
+        assertThat(partnerCache.areCoupled(1L, 2L)).isTrue();
+        assertThat(partnerCache.getPartnerId(2L)).contains(1L);
+    }
+    
+    @Test
+    void verifyRemovesEndedPair() {
+        commit(couple(1L, 2L));
+        partnerCache.load();
+        snapshot.clear();
+        current.clear();
+        
+        assertThat(partnerCache.verify()).isEqualTo(2);
+        assertThat(partnerCache.getPartnerId(1L)).isEmpty();
+        assertThat(partnerCache.areCoupled(2L, 1L)).isFalse();
+    }
+    
+    @Test
+    void verifyReplacesStalePartner() {
+        commit(couple(1L, 2L));
+        partnerCache.load();
+        snapshot.clear();
+        current.clear();
+        commit(couple(1L, 3L));
+        
+        assertThat(partnerCache.verify()).isEqualTo(3);
+        assertThat(partnerCache.getPartnerId(1L)).contains(3L);
+        assertThat(partnerCache.getPartnerId(3L)).contains(1L);
+        assertThat(partnerCache.getPartnerId(2L)).isEmpty();
+    }
+    
+    @Test
+    void verifyKeepsChangeCommittedAfterSnapshot() {
+        partnerCache.load();
+        // Coupled after the verification snapshot was read: only the per-user re-read sees it
+        current.add(couple(1L, 2L));
+        partnerCache.onRelationshipChanged(new RelationshipChangedEvent(1L, 2L, true));
+        
+        assertThat(partnerCache.verify()).isZero();
+        assertThat(partnerCache.areCoupled(1L, 2L)).isTrue();
+    }
+    
+    @Test
+    void verifyFindsNothingWhenConsistent() {
+        commit(couple(1L, 2L));
+        commit(couple(3L, 4L));
+        partnerCache.load();
+        
+        assertThat(partnerCache.verify()).isZero();
+    }
+    
+    private void commit(UserRelationship relationship) {
+        snapshot.add(relationship);
+        current.add(relationship);
+    }
+    
+    private static UserRelationship couple(Long user1Id, Long user2Id) {
+        UserRelationship relationship = new UserRelationship();
+        relationship.setUser1Id(user1Id);
+        relationship.setUser2Id(user2Id);
+        relationship.setStatus(UserRelationship.RelationshipStatus.ACTIVE);
+        return relationship;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.mx0100.weblog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mx0100.weblog.config.PostTransferConfig;
+import io.github.mx0100.weblog.entity.UserRelationship;
+import io.github.mx0100.weblog.repository.UserRelationshipRepository;
+import io.github.mx0100.weblog.repository.UserRepository;
+import io.github.mx0100.weblog.utils.RichContentConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Import record validation and ID block expansion
+ * Every rejected archive fails before its first chunk is written, so no database is needed
+ */
+class PostTransferServiceTest {
+    
+    private static final Long USER_ID = 1L;
+    
+    private static final Long PARTNER_ID = 2L;
+    
+    private final PostTransferConfig postTransferConfig = new PostTransferConfig();
+    
+    private PostTransferService postTransferService;
+    
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsById(any())).thenReturn(true);
+        UserRelationshipRepository relationshipRepository = mock(UserRelationshipRepository.class);
+        when(relationshipRepository.findActiveRelationshipByUserId(anyLong()))
+                .thenReturn(Optional.of(couple(USER_ID, PARTNER_ID)));
+        PartnerCache partnerCache = new PartnerCache(relationshipRepository, new SimpleMeterRegistry());
+        postTransferService = new PostTransferService(null, null, null, null, null, userRepository,
+                partnerCache, null, null, null, postTransferConfig, new RichContentConverter(),
+                new ObjectMapper().findAndRegisterModules());
+    }
+    
+    @Test
+    void idsFromBlocksHandsOutWholeBlocks() {
+        List<Long> ids = PostTransferService.idsFromBlocks(List.of(100L, 150L), 60);
+        
+        assertThat(ids).hasSize(60);
+        assertThat(ids.get(0)).isEqualTo(51L);
+        assertThat(ids.get(49)).isEqualTo(100L);
+        assertThat(ids.get(50)).isEqualTo(101L);
+        assertThat(ids.get(59)).isEqualTo(110L);
+    }
+    
+    @Test
+    void idsFromBlocksRejectsShortSequenceResult() {
+        assertThatThrownBy(() -> PostTransferService.idsFromBlocks(List.of(50L), 51))
+                .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void malformedRecordIsRejectedWithItsNumber() {
+        String archive = post("first", "") + "\n{\"richContent\": \n";
+        
+        assertThatThrownBy(() -> importArchive(archive))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Import record 2 rejected: malformed JSON (0 posts already imported)");
+    }
+    
+    @Test
+    void emptyPostContentIsRejected() {
+        assertThatThrownBy(() -> importArchive(post("   ", "")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Import record 1 rejected: post content is empty");
+    }
+    
+    @Test
+    void tooLongCommentIsRejected() {
+        String archive = post("post", comment(USER_ID, "x".repeat(501)));
+        
+        assertThatThrownBy(() -> importArchive(archive))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Import record 1 rejected: comment content is empty, invalid or longer than 500");
+    }
+    
+    @Test
+    void tooManyCommentsAreRejected() {
+        postTransferConfig.setImportMaxCommentsPerPost(1);
+        String archive = post("post", comment(USER_ID, "a") + "," + comment(USER_ID, "b"));
+        
+        assertThatThrownBy(() -> importArchive(archive))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Import record 1 rejected: more than 1 comments");
+    }
+    
+    @Test
+    void commentAuthorMustBeUserOrPartner() {
+        // The partner's comment passes, so the stranger's one in the second record is the first rejection
+        String archive = post("first", comment(PARTNER_ID, "from partner")) + "\n"
+                + post("second", comment(3L, "from stranger"));
+        
+        assertThatThrownBy(() -> importArchive(archive))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Import record 2 rejected: comment author must be the importing user or their partner"
+                        + " (0 posts already imported)");
+    }
+    
+    private void importArchive(String archive) throws Exception {
+        postTransferService.importPosts(USER_ID, new ByteArrayInputStream(archive.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    private static String post(String text, String comments) {
+        return "{\"richContent\":" + content(text) + ",\"createdAt\":\"2024-01-01T00:00:00\",\"comments\":[" + comments + "]}";
+    }
+    
+    private static String comment(Long authorId, String text) {
+        return "{\"authorId\":" + authorId + ",\"richContent\":" + content(text) + ",\"createdAt\":\"2024-01-01T00:00:00\"}";
+    }
+    
+    private static String content(String text) {
+        return "{\"type\":\"plain_text\",\"version\":\"1.0\",\"plainText\":\"" + text + "\"}";
+    }
+    
+    private static UserRelationship couple(Long user1Id, Long user2Id) {
+        UserRelationship relationship = new UserRelationship();
+        relationship.setUser1Id(user1Id);
+        relationship.setUser2Id(user2Id);
+        relationship.setStatus(UserRelationship.RelationshipStatus.ACTIVE);
+        return relationship;
+    }
+}
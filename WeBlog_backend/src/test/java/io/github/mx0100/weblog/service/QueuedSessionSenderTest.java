@@ -0,0 +1,124 @@
+package io.github.mx0100.weblog.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replay hold/release and duplicate suppression of a session sender
+ * Drains run on the calling thread, so every accepted message is written before enqueue returns
+ */
+class QueuedSessionSenderTest {
+    
+    private final List<String> sent = new ArrayList<>();
+    
+    private boolean open = true;
+    
+    private QueuedSessionSender sender;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenAnswer(invocation -> open);
+        doAnswer(invocation -> sent.add(invocation.<WebSocketMessage<?>>getArgument(0).getPayload().toString()))
+                .when(session).sendMessage(any());
+        doAnswer(invocation -> open = false).when(session).close(any(CloseStatus.class));
+        sender = new QueuedSessionSender(session, 1000, 64 * 1024, 16, Runnable::run,
+                new QueuedSessionSender.Metrics(new SimpleMeterRegistry()));
+    }
+    
+    @Test
+    void liveMessagesAreHeldUntilReplayFinishes() throws Exception {
+        sender.replay(message("replayed-1"), 1);
+        assertThat(sender.enqueue(message("live-3"), 3L)).isTrue();
+        sender.replay(message("replayed-2"), 2);
+        
+        assertThat(sent).containsExactly("replayed-1", "replayed-2");
+        assertThat(sender.getQueueDepth()).isEqualTo(1);
+        
+        sender.finishReplay();
+        
+        assertThat(sent).containsExactly("replayed-1", "replayed-2", "live-3");
+        assertThat(sender.getQueueDepth()).isZero();
+    }
+    
+    @Test
+    void heldMessagesAlreadyReplayedAreSkipped() throws Exception {
+        // Committed before the replay query ran, so it arrives both ways
+        sender.enqueue(message("live-2"), 2L);
+        sender.replay(message("replayed-1"), 1);
+        sender.replay(message("replayed-2"), 2);
+        sender.finishReplay();
+        
+        assertThat(sent).containsExactly("replayed-1", "replayed-2");
+    }
+    
+    @Test
+    void duplicateNotificationIsSentOnce() {
+        sender.finishReplay();
+        
+        assertThat(sender.enqueue(message("first"), 5L)).isTrue();
+        assertThat(sender.enqueue(message("again"), 5L)).isFalse();
+        
+        assertThat(sent).containsExactly("first");
+    }
+    
+    @Test
+    void lowerIdArrivingLaterIsDelivered() {
+        // Drawn on another node before 7 but committed after it
+        sender.finishReplay();
+        
+        assertThat(sender.enqueue(message("id-7"), 7L)).isTrue();
+        assertThat(sender.enqueue(message("id-5"), 5L)).isTrue();
+        
+        assertThat(sent).containsExactly("id-7", "id-5");
+    }
+    
+    @Test
+    void heldMessageBelowReplayedIdsIsReleased() throws Exception {
+        // Committed after the replay query ran although its ID is lower than the replayed ones
+        sender.enqueue(message("live-4"), 4L);
+        sender.replay(message("replayed-5"), 5);
+        sender.replay(message("replayed-5-again"), 5);
+        sender.finishReplay();
+        
+        assertThat(sent).containsExactly("replayed-5", "live-4");
+    }
+    
+    @Test
+    void messagesWithoutIdAreNeverDeduplicated() {
+        sender.finishReplay();
+        
+        sender.enqueue(message("unstored-1"), null);
+        sender.enqueue(message("unstored-2"), null);
+        
+        assertThat(sent).containsExactly("unstored-1", "unstored-2");
+    }
+    
+    @Test
+    void closedSessionRejectsMessages() {
+        sender.finishReplay();
+        open = false;
+        
+        assertThat(sender.enqueue(message("late"), 1L)).isFalse();
+        assertThat(sent).isEmpty();
+    }
+    
+    private static TextMessage message(String payload) {
+        return new TextMessage(payload);
+    }
+}
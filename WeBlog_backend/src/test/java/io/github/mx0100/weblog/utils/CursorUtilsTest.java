@@ -0,0 +1,79 @@
+package io.github.mx0100.weblog.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+    
+    @Test
+    void encodeDecodeRoundTripsTimestampAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 30, 0, 123456000);
+        
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode(createdAt, 42L));
+        
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+    
+    @Test
+    void encodeDecodeRoundTripsWholeSeconds() {
+        // LocalDateTime.toString drops zero seconds ("12:30"), which must still parse
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 30);
+        
+        assertThat(CursorUtils.decode(CursorUtils.encode(createdAt, 7L)).getCreatedAt()).isEqualTo(createdAt);
+    }
+    
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = CursorUtils.encode(LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999999000), Long.MAX_VALUE);
+        
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+    
+    @Test
+    void blankCursorMeansFirstSlice() {
+        assertThat(CursorUtils.decode(null)).isNull();
+        assertThat(CursorUtils.decode("  ")).isNull();
+        assertThat(CursorUtils.encode(null, 1L)).isNull();
+    }
+    
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> CursorUtils.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decode(raw("2025-03-01T12:30"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decode(raw("|42"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decode(raw("yesterday|42"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decode(raw("2025-03-01T12:30|x"))).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void rankedCursorRoundTripsExactly() {
+        float rank = 0.0607927106f;
+        
+        CursorUtils.RankedCursor cursor = CursorUtils.decodeRanked(CursorUtils.encodeRanked(rank, "comment", 9L));
+        
+        assertThat(cursor.getRank()).isEqualTo(rank);
+        assertThat(cursor.getKind()).isEqualTo("comment");
+        assertThat(cursor.getId()).isEqualTo(9L);
+    }
+    
+    @Test
+    void malformedRankedCursorsAreRejected() {
+        assertThatThrownBy(() -> CursorUtils.decodeRanked(raw("0.5|post"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decodeRanked(raw("0.5||3"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorUtils.decodeRanked(raw("high|post|3"))).isInstanceOf(IllegalArgumentException.class);
+        // A plain keyset cursor is not a ranked cursor
+        String keyset = CursorUtils.encode(LocalDateTime.of(2025, 3, 1, 12, 30), 3L);
+        assertThatThrownBy(() -> CursorUtils.decodeRanked(keyset)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.mx0100.weblog.utils;
+
+import io.github.mx0100.weblog.dto.RawJson;
+import io.github.mx0100.weblog.dto.RichContent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaTextExtractorTest {
+    
+    @Test
+    void stringInsertsAreJoinedAndEmbedsSkipped() {
+        DeltaTextExtractor.ExtractedText text = extractDelta(
+                "{\"ops\":[{\"insert\":\"Hello \"},{\"insert\":{\"image\":\"a.png\"}},"
+                        + "{\"insert\":\"world\",\"attributes\":{\"bold\":true}},{\"insert\":\"\\n\"}]}",
+                "ignored client text");
+        
+        assertThat(text.getContent().getPlainText()).isEqualTo("Hello world");
+        assertThat(text.getContent().getDelta()).isNotNull();
+        assertThat(text.getWordCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void bareOpArrayIsAccepted() {
+        assertThat(extractDelta("[{\"insert\":\"one two\"}]", "").getContent().getPlainText()).isEqualTo("one two");
+    }
+    
+    @Test
+    void textIsTrimmedAndPreviewCollapsesWhitespace() {
+        DeltaTextExtractor.ExtractedText text = DeltaTextExtractor.extract(RichContent.createPlainText("  a \n\n b\t "));
+        
+        assertThat(text.getContent().getPlainText()).isEqualTo("a \n\n b");
+        assertThat(text.getPreview()).isEqualTo("a b");
+        assertThat(text.getWordCount()).isEqualTo(2);
+    }
+    
+    @Test
+    void eachCjkCharacterCountsAsAWord() {
+        assertThat(DeltaTextExtractor.extract(RichContent.createPlainText("你好world かな")).getWordCount()).isEqualTo(5);
+    }
+    
+    @Test
+    void previewCutNeverSplitsSurrogatePair() {
+        String plainText = "a".repeat(DeltaTextExtractor.PREVIEW_LENGTH - 1) + "\uD83D\uDE00 tail";
+        
+        String preview = DeltaTextExtractor.extract(RichContent.createPlainText(plainText)).getPreview();
+        
+        assertThat(preview).isEqualTo("a".repeat(DeltaTextExtractor.PREVIEW_LENGTH - 1));
+    }
+    
+    @Test
+    void previewHasNoTrailingSpaceAtTheCut() {
+        String plainText = "a".repeat(DeltaTextExtractor.PREVIEW_LENGTH - 1) + "   b";
+        
+        String preview = DeltaTextExtractor.extract(RichContent.createPlainText(plainText)).getPreview();
+        
+        assertThat(preview).isEqualTo("a".repeat(DeltaTextExtractor.PREVIEW_LENGTH - 1));
+    }
+    
+    @Test
+    void unreadableDeltaFallsBackToClientPlainText() {
+        assertThat(extractDelta("{\"ops\":[{\"insert\":\"cut", " client ").getContent().getPlainText()).isEqualTo("client");
+        assertThat(extractDelta("{\"blocks\":[]}", "client").getContent().getPlainText()).isEqualTo("client");
+        assertThat(extractDelta("\"just a string\"", "client").getContent().getPlainText()).isEqualTo("client");
+    }
+    
+    @Test
+    void missingContentIsEmpty() {
+        DeltaTextExtractor.ExtractedText text = DeltaTextExtractor.extract(null);
+        
+        assertThat(text.getContent().getPlainText()).isEmpty();
+        assertThat(text.getPreview()).isEmpty();
+        assertThat(text.getWordCount()).isZero();
+    }
+    
+    private static DeltaTextExtractor.ExtractedText extractDelta(String delta, String plainText) {
+        return DeltaTextExtractor.extract(RichContent.createRichText(RawJson.of(delta), plainText));
+    }
+}